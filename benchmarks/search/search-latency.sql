@@ -0,0 +1,85 @@
+-- Search latency versus catalog size, with and without the trigram index.
+--
+-- Runs against the PostgreSQL from docker-compose and only touches its own bench_* objects:
+--   docker compose exec -T db psql -U user -d library -v sizes='10000,100000,1000000' < benchmarks/search/search-latency.sql
+--
+-- For each catalog size it seeds bench_books, then times the two statements a filtered
+-- GET /api/books issues (page query + count query) for a few search terms, first without
+-- and then with the GIN pg_trgm index used by the application.
+
+\set ON_ERROR_STOP on
+\if :{?sizes}
+\else
+    \set sizes '10000,100000,1000000'
+\endif
+
+SET bench.sizes = :'sizes';
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP TABLE IF EXISTS bench_books;
+DROP TABLE IF EXISTS bench_search_results;
+CREATE TABLE bench_search_results (
+    catalog_size integer,
+    indexed      boolean,
+    term         text,
+    avg_ms       numeric(10, 3)
+);
+
+CREATE OR REPLACE FUNCTION bench_time_search(term text, runs integer) RETURNS numeric AS $$
+DECLARE
+    started timestamptz;
+    total   interval := interval '0';
+BEGIN
+    FOR i IN 1..runs LOOP
+        started := clock_timestamp();
+        EXECUTE 'SELECT id, title FROM bench_books WHERE upper(title) LIKE upper($1) ORDER BY id LIMIT 20'
+            USING '%' || term || '%';
+        EXECUTE 'SELECT count(*) FROM bench_books WHERE upper(title) LIKE upper($1)'
+            USING '%' || term || '%';
+        total := total + (clock_timestamp() - started);
+    END LOOP;
+    RETURN extract(epoch FROM total) * 1000 / runs;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    catalog_size integer;
+    terms        text[] := ARRAY['hobbit', 'ring', 'zzq'];
+    term         text;
+BEGIN
+    FOREACH catalog_size IN ARRAY string_to_array(current_setting('bench.sizes'), ',')::integer[] LOOP
+        DROP TABLE IF EXISTS bench_books;
+        CREATE TABLE bench_books (id uuid PRIMARY KEY, title varchar(255) NOT NULL);
+        INSERT INTO bench_books
+        SELECT gen_random_uuid(),
+               initcap(md5(g::text)) || CASE WHEN g % 1000 = 0 THEN ' The Hobbit' WHEN g % 100 = 0 THEN ' Ring' ELSE '' END
+        FROM generate_series(1, catalog_size) AS g;
+        ANALYZE bench_books;
+
+        FOREACH term IN ARRAY terms LOOP
+            INSERT INTO bench_search_results VALUES (catalog_size, false, term, bench_time_search(term, 5));
+        END LOOP;
+
+        CREATE INDEX bench_books_title_trgm ON bench_books USING gin (upper(title) gin_trgm_ops);
+        ANALYZE bench_books;
+
+        FOREACH term IN ARRAY terms LOOP
+            INSERT INTO bench_search_results VALUES (catalog_size, true, term, bench_time_search(term, 5));
+        END LOOP;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT catalog_size,
+       term,
+       max(avg_ms) FILTER (WHERE NOT indexed) AS seq_scan_ms,
+       max(avg_ms) FILTER (WHERE indexed)     AS trigram_ms
+FROM bench_search_results
+GROUP BY catalog_size, term
+ORDER BY catalog_size, term;
+
+DROP TABLE bench_books;
+DROP TABLE bench_search_results;
+DROP FUNCTION bench_time_search(text, integer);
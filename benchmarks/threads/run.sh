@@ -0,0 +1,14 @@
+#!/usr/bin/env sh
+# Runs ThreadModeBenchmark on platform threads, on virtual threads and on the reactive stack, each in its
+# own JVM, with the same options. Extra arguments are passed to both runs, e.g.:
+#   benchmarks/threads/run.sh --concurrency=2000 --db-url=jdbc:postgresql://localhost:5432/library
+set -e
+cd "$(dirname "$0")/../.."
+
+./mvnw -q -Ploadtest test-compile
+
+for mode in platform virtual reactive; do
+  ./mvnw -q -Ploadtest exec:exec \
+    -Dloadtest.main=com.liras23.library.loadtest.ThreadModeBenchmark \
+    -Dloadtest.args="--mode=$mode $*"
+done
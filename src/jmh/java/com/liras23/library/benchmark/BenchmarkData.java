@@ -0,0 +1,52 @@
+package com.liras23.library.benchmark;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.dto.BookRequestDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixtures shared by the benchmarks, shaped like what the read endpoints load from the database.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Author author() {
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+        author.setVersion(3L);
+        return author;
+    }
+
+    static Book book(Author author, int index) {
+        Book book = new Book(UUID.randomUUID(), "The Lord of the Rings, volume " + index, author,
+                "978-" + String.format("%010d", index));
+        book.setVersion(1L);
+        return book;
+    }
+
+    static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        Author author = author();
+        for (int i = 0; i < count; i++) {
+            // A new author every ten books, as in a catalog with many authors.
+            if (i % 10 == 0) {
+                author = author();
+            }
+            books.add(book(author, i));
+        }
+        return books;
+    }
+
+    static BookRequestDTO validRequest() {
+        return new BookRequestDTO("The Hobbit", UUID.randomUUID(), "978-0345339683");
+    }
+
+    static BookRequestDTO invalidRequest() {
+        return new BookRequestDTO("", null, "123");
+    }
+}
@@ -0,0 +1,63 @@
+package com.liras23.library.benchmark;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping, run once per row by every read endpoint.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private AuthorMapper authorMapper;
+    private BookMapper bookMapper;
+    private Author author;
+    private Book book;
+    private BookRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        authorMapper = new AuthorMapper();
+        bookMapper = new BookMapper(authorMapper);
+        author = BenchmarkData.author();
+        book = BenchmarkData.book(author, 1);
+        request = BenchmarkData.validRequest();
+    }
+
+    @Benchmark
+    public AuthorResponseDTO authorToResponse() {
+        return authorMapper.toResponse(author);
+    }
+
+    @Benchmark
+    public BookResponseDTO bookToResponse() {
+        return bookMapper.toResponse(book);
+    }
+
+    @Benchmark
+    public Book bookToEntity() {
+        return bookMapper.toEntity(request);
+    }
+}
@@ -0,0 +1,58 @@
+package com.liras23.library.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response sizes of a book and of pages of books in each format of {@link SerializationBenchmark}, as sent and
+ * gzipped. Not a JMH benchmark: run it with {@code -Djmh.main=com.liras23.library.benchmark.PayloadSizes}.
+ */
+public final class PayloadSizes {
+
+    private static final List<String> FORMATS = List.of("json", "cbor", "smile");
+
+    private PayloadSizes() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        BookMapper bookMapper = new BookMapper(new AuthorMapper());
+        System.out.printf("%-10s %-6s %10s %10s %8s%n", "payload", "format", "bytes", "gzip", "vs json");
+        report("1 book", bookMapper.toResponse(BenchmarkData.book(BenchmarkData.author(), 1)));
+        for (int size : new int[]{20, 100, 1000}) {
+            Page<BookResponseDTO> page = new PageImpl<>(BenchmarkData.books(size), PageRequest.of(0, size), size * 10L)
+                    .map(bookMapper::toResponse);
+            report(size + " books", page);
+        }
+    }
+
+    private static void report(String payload, Object value) throws IOException {
+        int json = 0;
+        for (String format : FORMATS) {
+            ObjectMapper mapper = SerializationBenchmark.mapper(format).build();
+            byte[] bytes = mapper.writeValueAsBytes(value);
+            if (json == 0) {
+                json = bytes.length;
+            }
+            System.out.printf("%-10s %-6s %10d %10d %7.0f%%%n", payload, format, bytes.length, gzip(bytes).length,
+                    100.0 * bytes.length / json);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
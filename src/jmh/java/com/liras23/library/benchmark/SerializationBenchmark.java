@@ -0,0 +1,134 @@
+package com.liras23.library.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of book responses, written to a discarding stream the way the message converter writes to the
+ * response, in each format the API negotiates (see {@code ContentNegotiationConfig}). The page benchmarks use
+ * the same {@code Page} shape as {@code GET /api/books}; {@link #gzippedPage} adds the response compression
+ * the server applies to large bodies. {@link PayloadSizes} reports the resulting sizes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private BookResponseDTO book;
+
+    @State(Scope.Benchmark)
+    public static class PageState {
+
+        @Param({"20", "100", "1000"})
+        public int size;
+
+        BookMapper bookMapper;
+        Page<Book> entities;
+        Page<BookResponseDTO> page;
+        Map<String, byte[]> encoded;
+
+        @Setup
+        public void setUp() throws IOException {
+            bookMapper = new BookMapper(new AuthorMapper());
+            List<Book> books = BenchmarkData.books(size);
+            entities = new PageImpl<>(books, PageRequest.of(0, size), size * 10L);
+            page = entities.map(bookMapper::toResponse);
+            encoded = new HashMap<>();
+            for (String format : List.of("json", "cbor", "smile")) {
+                encoded.put(format, mapper(format).build().writeValueAsBytes(page));
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // The message converter never closes the response stream either.
+        objectMapper = mapper(format)
+                .featuresToDisable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+        book = new BookMapper(new AuthorMapper()).toResponse(BenchmarkData.book(BenchmarkData.author(), 1));
+    }
+
+    @Benchmark
+    public void singleBook() throws IOException {
+        objectMapper.writeValue(out, book);
+    }
+
+    @Benchmark
+    public void page(PageState state) throws IOException {
+        objectMapper.writeValue(out, state.page);
+    }
+
+    /**
+     * The whole read path after the query: map every entity of the page, then serialize the page.
+     */
+    @Benchmark
+    public void mapAndSerializePage(PageState state) throws IOException {
+        objectMapper.writeValue(out, state.entities.map(state.bookMapper::toResponse));
+    }
+
+    /**
+     * Gzip at the default level, as Tomcat compresses responses above {@code server.compression.min-response-size}.
+     * Closing the gzip stream ends the response, so it gets a discarding stream of its own.
+     */
+    @Benchmark
+    public void gzippedPage(PageState state) throws IOException {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(OutputStream.nullOutputStream())) {
+            objectMapper.writeValue(gzip, state.page);
+        }
+    }
+
+    /**
+     * What a client does with the response: parse the page into a tree.
+     */
+    @Benchmark
+    public JsonNode parsePage(PageState state) throws IOException {
+        return objectMapper.readTree(state.encoded.get(format));
+    }
+
+    static Jackson2ObjectMapperBuilder mapper(String format) {
+        return switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+}
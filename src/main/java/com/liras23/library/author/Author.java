@@ -1,27 +1,66 @@
 package com.liras23.library.author;
 
+import com.liras23.library.common.persistence.UuidV7;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "authors")
+@Table(name = Author.TABLE, indexes = {
+        @Index(name = "idx_authors_name", columnList = "name"),
+        @Index(name = "idx_authors_updated_at", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Author {
 
+    public static final String TABLE = "authors";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     private String name;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Number of books by this author, adjusted by the book writes through
+     * {@link AuthorRepository#adjustBookCount}. Entity updates never write it, so renaming an author
+     * cannot overwrite a concurrent adjustment.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long bookCount;
+
+    /**
+     * Set by the database when the row is inserted; see {@link #updatedAt}.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
+    /**
+     * When the author was created or last changed, book count adjustments included. Stamped by the database
+     * on every insert and update, like {@link com.liras23.library.book.Book#getUpdatedAt() the books' change
+     * time}.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Instant updatedAt;
+
+    public Author(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+    }
 }
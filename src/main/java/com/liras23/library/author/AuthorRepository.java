@@ -1,10 +1,17 @@
 package com.liras23.library.author;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -12,10 +19,109 @@ public interface AuthorRepository extends JpaRepository<Author, UUID> {
 
     /**
      * Finds all authors whose name contains the given string, ignoring case.
+     * On PostgreSQL this is served by the {@code idx_authors_name_trgm} trigram index.
      *
      * @param name     The string to search for in the author's name.
      * @param pageable The pagination information.
      * @return A page of authors matching the criteria.
      */
     Page<Author> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    /**
+     * Finds a slice of authors, fetching one row more than the page size to tell whether there is a next
+     * page instead of counting the whole table.
+     *
+     * @param pageable The pagination information.
+     * @return A slice of authors.
+     */
+    Slice<Author> findSliceBy(Pageable pageable);
+
+    /**
+     * Finds a slice of the authors whose name contains the given string, ignoring case, without the count
+     * query of {@link #findByNameContainingIgnoreCase}, which scans every match again.
+     *
+     * @param name     The string to search for in the author's name.
+     * @param pageable The pagination information.
+     * @return A slice of authors matching the criteria.
+     */
+    Slice<Author> findSliceByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    /**
+     * Finds the first authors in id order, for the first page of a keyset traversal.
+     *
+     * @param limit The maximum number of authors to return.
+     * @return The authors with the lowest ids.
+     */
+    List<Author> findByOrderByIdAsc(Limit limit);
+
+    /**
+     * Finds the authors whose id comes after the given one, in id order.
+     *
+     * @param id    The id of the last author of the previous page.
+     * @param limit The maximum number of authors to return.
+     * @return The next authors in id order.
+     */
+    List<Author> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Finds the first authors whose name contains the given string, ignoring case, in id order.
+     *
+     * @param name  The string to search for in the author's name.
+     * @param limit The maximum number of authors to return.
+     * @return The matching authors with the lowest ids.
+     */
+    List<Author> findByNameContainingIgnoreCaseOrderByIdAsc(String name, Limit limit);
+
+    /**
+     * Finds the authors whose name contains the given string, ignoring case, and whose id comes after the given one.
+     *
+     * @param name  The string to search for in the author's name.
+     * @param id    The id of the last author of the previous page.
+     * @param limit The maximum number of authors to return.
+     * @return The next matching authors in id order.
+     */
+    List<Author> findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String name, UUID id, Limit limit);
+
+    /**
+     * Reads only the version and book count of an author, enough to build its entity tag without
+     * loading the entity.
+     *
+     * @param id The ID of the author.
+     * @return An Optional containing the version and book count if the author exists.
+     */
+    @Query("select a.version as version, a.bookCount as bookCount from Author a where a.id = :id")
+    Optional<AuthorVersion> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Adds {@code delta} to the book count of an author in a single statement, without reading the
+     * author. Concurrent adjustments of the same author queue on its row lock instead of overwriting
+     * each other, and the author's version is left alone; the database sets its change time. Pending changes are
+     * flushed first and the persistence context is cleared afterwards, so no managed author keeps a stale
+     * count.
+     *
+     * @param id    The ID of the author.
+     * @param delta The number of books added (positive) or removed (negative).
+     * @return The number of authors updated, 0 if the author does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Author a set a.bookCount = a.bookCount + :delta where a.id = :id")
+    int adjustBookCount(@Param("id") UUID id, @Param("delta") long delta);
+
+    /**
+     * Deletes an author in a single statement, without loading it first as {@code deleteById} does.
+     * Fails with a foreign key violation while the author still has books.
+     *
+     * @param id The ID of the author.
+     * @return The number of authors deleted, 0 if the author does not exist.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Author a where a.id = :id")
+    int removeById(@Param("id") UUID id);
+
+    interface AuthorVersion {
+
+        Long getVersion();
+
+        Long getBookCount();
+    }
 }
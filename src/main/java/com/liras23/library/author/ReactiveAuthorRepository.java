@@ -0,0 +1,147 @@
+package com.liras23.library.author;
+
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.common.config.ReactiveConfig;
+import com.liras23.library.common.persistence.SqlFragments;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * R2DBC counterpart of {@link AuthorRepository}, for the {@value ReactiveConfig#PROFILE} profile. Each method
+ * runs the statement its JPA counterpart generates, so both are served by the same indexes, and maps rows
+ * straight to {@link AuthorResponseDTO}s.
+ */
+@Repository
+@Profile(ReactiveConfig.PROFILE)
+public class ReactiveAuthorRepository {
+
+    private static final String COLUMNS = "SELECT id, name, version, book_count FROM authors";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "version", "version",
+            "bookCount", "book_count");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAuthorRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Finds a page of authors, optionally only those whose name contains {@code name}, ignoring case.
+     */
+    public Flux<AuthorResponseDTO> findPage(String name, Pageable pageable) {
+        String sql = COLUMNS + SqlFragments.where(nameFilter(name))
+                + SqlFragments.orderBy(pageable.getSort(), SORT_COLUMNS, Author.class)
+                + SqlFragments.limit(pageable);
+        return bindName(databaseClient.sql(sql), name)
+                .map(ReactiveAuthorRepository::toResponse)
+                .all();
+    }
+
+    public Mono<Long> count(String name) {
+        String sql = "SELECT count(*) FROM authors" + SqlFragments.where(nameFilter(name));
+        return bindName(databaseClient.sql(sql), name)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Finds up to {@code limit} authors in id order, after {@code afterId} when given, for cursor pagination.
+     */
+    public Flux<AuthorResponseDTO> findAfter(String name, UUID afterId, int limit) {
+        String sql = COLUMNS + SqlFragments.where(nameFilter(name), afterId != null ? "id > :afterId" : null)
+                + " ORDER BY id LIMIT " + limit;
+        DatabaseClient.GenericExecuteSpec spec = bindName(databaseClient.sql(sql), name);
+        if (afterId != null) {
+            spec = spec.bind("afterId", afterId);
+        }
+        return spec.map(ReactiveAuthorRepository::toResponse).all();
+    }
+
+    public Mono<AuthorResponseDTO> findById(UUID id) {
+        return databaseClient.sql(COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveAuthorRepository::toResponse)
+                .one();
+    }
+
+    public Flux<AuthorResponseDTO> findAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(COLUMNS + " WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveAuthorRepository::toResponse)
+                .all();
+    }
+
+    public Mono<Void> insert(UUID id, String name) {
+        return databaseClient.sql("INSERT INTO authors (id, name, version, book_count) VALUES (:id, :name, 0, 0)")
+                .bind("id", id)
+                .bind("name", name)
+                .then();
+    }
+
+    /**
+     * Renames an author if it is still at {@code version}, incrementing the version like Hibernate does.
+     *
+     * @return The number of rows updated: 0 if the author was deleted or modified concurrently.
+     */
+    public Mono<Long> updateName(UUID id, String name, long version) {
+        return databaseClient.sql("""
+                        UPDATE authors SET name = :name, version = version + 1
+                        WHERE id = :id AND version = :version""")
+                .bind("name", name)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * See {@link AuthorRepository#adjustBookCount}.
+     */
+    public Mono<Void> adjustBookCount(UUID id, long delta) {
+        return databaseClient.sql("UPDATE authors SET book_count = book_count + :delta WHERE id = :id")
+                .bind("delta", delta)
+                .bind("id", id)
+                .then();
+    }
+
+    /**
+     * See {@link AuthorRepository#removeById}: fails with a foreign key violation while the author has books.
+     *
+     * @return The number of rows deleted: 0 if the author does not exist.
+     */
+    public Mono<Long> removeById(UUID id) {
+        return databaseClient.sql("DELETE FROM authors WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String nameFilter(String name) {
+        return StringUtils.hasText(name) ? "upper(name) LIKE upper(:name) " + SqlFragments.LIKE_ESCAPE : null;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindName(DatabaseClient.GenericExecuteSpec spec, String name) {
+        return StringUtils.hasText(name) ? spec.bind("name", SqlFragments.containing(name)) : spec;
+    }
+
+    private static AuthorResponseDTO toResponse(Readable row) {
+        return new AuthorResponseDTO(row.get("id", UUID.class), row.get("name", String.class),
+                row.get("version", Long.class), row.get("book_count", Long.class));
+    }
+}
@@ -3,6 +3,12 @@ package com.liras23.library.author.controller;
 import com.liras23.library.author.dto.AuthorRequestDTO;
 import com.liras23.library.author.dto.AuthorResponseDTO;
 import com.liras23.library.author.service.AuthorService;
+import com.liras23.library.common.config.ReactiveConfig;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.dto.SliceResponseDTO;
+import com.liras23.library.common.web.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -12,16 +18,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
+@Profile("!" + ReactiveConfig.PROFILE)
 @RequestMapping("/api/authors")
 @Tag(name = "Authors", description = "Endpoints for managing authors")
 public class AuthorController {
@@ -47,18 +58,96 @@ public class AuthorController {
         return ResponseEntity.ok(page);
     }
 
+    @Operation(
+            summary = "Find all authors without counting them",
+            description = "Returns a page of authors like the default listing, but with hasNext instead of the total, so no count query is run. Unfiltered listings include estimatedTotal, a rough total from the database statistics. Can be filtered by name."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = SliceResponseDTO.class)))
+    })
+    @GetMapping(params = "slice=true")
+    public ResponseEntity<SliceResponseDTO<AuthorResponseDTO>> findSlice(
+            @RequestParam(required = false) String name,
+            @ParameterObject Pageable pageable) {
+        SliceResponseDTO<AuthorResponseDTO> slice = authorService.findSlice(name, pageable);
+        return ResponseEntity.ok(slice);
+    }
+
+    @Operation(
+            summary = "Find all authors with a cursor",
+            description = "Returns authors in id order using keyset pagination. Send an empty cursor for the first page and the returned nextCursor for the following ones. Can be filtered by name."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Invalid cursor: abc\"}")))
+    })
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageResponseDTO<AuthorResponseDTO>> findAllByCursor(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponseDTO<AuthorResponseDTO> page = authorService.findAllByCursor(name, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(
+            summary = "Find authors by a list of IDs",
+            description = "Returns the authors with the given IDs (comma-separated, at most 100) in the order they were requested, resolved with a single query. IDs that do not exist are listed in missing instead of failing the request."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved authors", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = LookupResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Too many IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"At most 100 ids can be looked up at once.\"}")))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<LookupResponseDTO<AuthorResponseDTO>> findAllById(@RequestParam List<UUID> ids) {
+        LookupResponseDTO<AuthorResponseDTO> responseDTO = authorService.findAllById(ids);
+        return ResponseEntity.ok(responseDTO);
+    }
+
+    @Operation(
+            summary = "Look up authors by a list of IDs",
+            description = "Same as GET with ids, with the IDs sent in the body, for lists too long for a URL."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved authors", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = LookupResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data or too many IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"At most 100 ids can be looked up at once.\"}")))
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<LookupResponseDTO<AuthorResponseDTO>> lookup(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "IDs of the authors to find, at most 100.",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = LookupRequestDTO.class),
+                            examples = @ExampleObject(value = "{\"ids\": [\"c0a80121-7ac0-191b-817a-c08ab0a12345\"]}")
+                    )
+            )
+            @Valid @RequestBody LookupRequestDTO requestDTO) {
+        LookupResponseDTO<AuthorResponseDTO> responseDTO = authorService.findAllById(requestDTO.ids());
+        return ResponseEntity.ok(responseDTO);
+    }
+
     @Operation(
             summary = "Find author by ID",
-            description = "Returns a single author by its unique ID."
+            description = "Returns a single author by its unique ID. The response carries an ETag; send it back in If-None-Match to get 304 Not Modified while the author is unchanged."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully retrieved author", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = AuthorResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Author unchanged since the entity tag sent in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Author not found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Author not found with id: 123e4567-e89b-12d3-a456-426614174000\"}")))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<AuthorResponseDTO> findById(@PathVariable UUID id) {
+    public ResponseEntity<AuthorResponseDTO> findById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = authorService.findETag(id);
+            if (eTag.isPresent() && ETags.weakMatch(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
         AuthorResponseDTO responseDTO = authorService.findById(id);
-        return ResponseEntity.ok(responseDTO);
+        return ResponseEntity.ok().eTag(responseDTO.eTag()).body(responseDTO);
     }
 
     @Operation(
@@ -86,12 +175,14 @@ public class AuthorController {
 
     @Operation(
             summary = "Update an existing author",
-            description = "Updates the name of an existing author by its ID."
+            description = "Updates the name of an existing author by its ID. Send the ETag from a previous read in If-Match to have the update rejected with 412 if the author changed in the meantime."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Author updated successfully", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = AuthorResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"name\": \"Author name cannot be blank.\"}"))),
-            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Author not found with id: 123e4567-e89b-12d3-a456-426614174000\"}")))
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Author not found with id: 123e4567-e89b-12d3-a456-426614174000\"}"))),
+            @ApiResponse(responseCode = "409", description = "Author modified concurrently", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"The resource was modified by another request. Reload it and try again.\"}"))),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current entity tag", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Author with id 123e4567-e89b-12d3-a456-426614174000 was modified since it was read.\"}")))
     })
     @PutMapping("/{id}")
     public ResponseEntity<AuthorResponseDTO> update(
@@ -104,9 +195,10 @@ public class AuthorController {
                             examples = @ExampleObject(value = "{\"name\": \"J.R.R. Tolkien\"}")
                     )
             )
-            @Valid @RequestBody AuthorRequestDTO requestDTO) {
-        AuthorResponseDTO responseDTO = authorService.update(id, requestDTO);
-        return ResponseEntity.ok(responseDTO);
+            @Valid @RequestBody AuthorRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AuthorResponseDTO responseDTO = authorService.update(id, requestDTO, ifMatch);
+        return ResponseEntity.ok().eTag(responseDTO.eTag()).body(responseDTO);
     }
 
     @Operation(
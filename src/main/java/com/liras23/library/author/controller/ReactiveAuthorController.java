@@ -0,0 +1,92 @@
+package com.liras23.library.author.controller;
+
+import com.liras23.library.author.dto.AuthorRequestDTO;
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.author.service.ReactiveAuthorService;
+import com.liras23.library.common.config.ReactiveConfig;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.web.ETags;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The routes of {@link AuthorController} on WebFlux, for the {@value ReactiveConfig#PROFILE} profile. Requests,
+ * responses, headers and errors are the same; see {@link AuthorController} for their documentation.
+ */
+@RestController
+@RequestMapping("/api/authors")
+@Profile(ReactiveConfig.PROFILE)
+public class ReactiveAuthorController {
+
+    private final ReactiveAuthorService authorService;
+
+    public ReactiveAuthorController(ReactiveAuthorService authorService) {
+        this.authorService = authorService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<AuthorResponseDTO>>> findAll(
+            @RequestParam(required = false) String name,
+            Pageable pageable) {
+        return authorService.findAll(name, pageable).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<CursorPageResponseDTO<AuthorResponseDTO>>> findAllByCursor(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return authorService.findAllByCursor(name, cursor, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<LookupResponseDTO<AuthorResponseDTO>>> findAllById(@RequestParam List<UUID> ids) {
+        return authorService.findAllById(ids).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/lookup")
+    public Mono<ResponseEntity<LookupResponseDTO<AuthorResponseDTO>>> lookup(@Valid @RequestBody LookupRequestDTO requestDTO) {
+        return authorService.findAllById(requestDTO.ids()).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<AuthorResponseDTO>> findById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return authorService.findById(id).map(responseDTO -> ifNoneMatch != null && ETags.weakMatch(ifNoneMatch, responseDTO.eTag())
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(responseDTO.eTag()).build()
+                : ResponseEntity.ok().eTag(responseDTO.eTag()).body(responseDTO));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<AuthorResponseDTO>> create(@Valid @RequestBody AuthorRequestDTO requestDTO) {
+        return authorService.create(requestDTO)
+                .map(responseDTO -> ResponseEntity.status(HttpStatus.CREATED).body(responseDTO));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<AuthorResponseDTO>> update(
+            @PathVariable UUID id,
+            @Valid @RequestBody AuthorRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return authorService.update(id, requestDTO, ifMatch)
+                .map(responseDTO -> ResponseEntity.ok().eTag(responseDTO.eTag()).body(responseDTO));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable UUID id) {
+        return authorService.delete(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
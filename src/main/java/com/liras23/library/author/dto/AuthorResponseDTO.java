@@ -1,9 +1,23 @@
 package com.liras23.library.author.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.liras23.library.common.web.ETags;
+
 import java.util.UUID;
 
 public record AuthorResponseDTO(
         UUID id,
-        String name
+        String name,
+        Long version,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long bookCount
 ) {
+
+    /**
+     * The book count is part of the representation, so the tag changes when books are added or removed
+     * even though the author's version does not.
+     */
+    public String eTag() {
+        return ETags.of(version, bookCount);
+    }
 }
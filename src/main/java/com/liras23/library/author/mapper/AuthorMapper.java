@@ -21,6 +21,27 @@ public class AuthorMapper {
         if (entity == null) {
             return null;
         }
-        return new AuthorResponseDTO(entity.getId(), entity.getName());
+        return new AuthorResponseDTO(entity.getId(), entity.getName(), entity.getVersion(), entity.getBookCount());
+    }
+
+    /**
+     * Maps the author embedded in a book, without the book count: it changes with every book of the author
+     * and would otherwise make cached books and their entity tags stale.
+     */
+    public AuthorResponseDTO toSummary(Author entity) {
+        if (entity == null) {
+            return null;
+        }
+        return new AuthorResponseDTO(entity.getId(), entity.getName(), entity.getVersion(), null);
+    }
+
+    /**
+     * Same as {@link #toSummary(Author)}, for an author representation that is already at hand.
+     */
+    public AuthorResponseDTO toSummary(AuthorResponseDTO author) {
+        if (author == null || author.bookCount() == null) {
+            return author;
+        }
+        return new AuthorResponseDTO(author.id(), author.name(), author.version(), null);
     }
 }
@@ -5,26 +5,62 @@ import com.liras23.library.author.AuthorRepository;
 import com.liras23.library.author.dto.AuthorRequestDTO;
 import com.liras23.library.author.dto.AuthorResponseDTO;
 import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.change.ResourceChange;
+import com.liras23.library.common.config.CacheConfig;
+import com.liras23.library.common.config.MetricsConfig;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.dto.SliceResponseDTO;
+import com.liras23.library.common.exception.PreconditionFailedException;
 import com.liras23.library.common.exception.ResourceNotFoundException;
+import com.liras23.library.common.exception.TooManyIdsException;
+import com.liras23.library.common.pagination.CursorPagination;
+import com.liras23.library.common.persistence.TableStatistics;
+import com.liras23.library.common.web.ETags;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
     private final AuthorMapper authorMapper;
+    private final TableStatistics tableStatistics;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AuthorService(AuthorRepository authorRepository, AuthorMapper authorMapper) {
+    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository, AuthorMapper authorMapper,
+                         TableStatistics tableStatistics, ApplicationEventPublisher eventPublisher) {
         this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
         this.authorMapper = authorMapper;
+        this.tableStatistics = tableStatistics;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Finds a page of authors, optionally filtered by name. Pages are cached by filter, page, size and sort
+     * until the next book or author write.
+     */
+    @Cacheable(cacheNames = CacheConfig.AUTHOR_SEARCHES_CACHE, condition = "@searchCaching.authors()",
+            key = "T(com.liras23.library.common.config.CacheConfig).searchKey(#name, #pageable)")
     @Transactional(readOnly = true)
     public Page<AuthorResponseDTO> findAll(String name, Pageable pageable) {
         Page<Author> page;
@@ -36,33 +72,142 @@ public class AuthorService {
         return page.map(authorMapper::toResponse);
     }
 
+    /**
+     * Finds a page of authors without counting them. Unfiltered listings carry the estimated number of
+     * authors from the table statistics.
+     *
+     * @param name     The string to search for in the author's name, if any.
+     * @param pageable The pagination information.
+     * @return A slice of authors.
+     */
+    @Transactional(readOnly = true)
+    public SliceResponseDTO<AuthorResponseDTO> findSlice(String name, Pageable pageable) {
+        if (StringUtils.hasText(name)) {
+            return SliceResponseDTO.of(authorRepository.findSliceByNameContainingIgnoreCase(name, pageable)
+                    .map(authorMapper::toResponse), OptionalLong.empty());
+        }
+        return SliceResponseDTO.of(authorRepository.findSliceBy(pageable).map(authorMapper::toResponse),
+                tableStatistics.estimateRowCount(Author.TABLE));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<AuthorResponseDTO> findAllByCursor(String name, String cursor, int size) {
+        UUID afterId = CursorPagination.decode(cursor);
+        int pageSize = CursorPagination.normalizeSize(size);
+        Limit limit = CursorPagination.limitFor(pageSize);
+
+        List<Author> authors;
+        if (StringUtils.hasText(name)) {
+            authors = afterId == null
+                    ? authorRepository.findByNameContainingIgnoreCaseOrderByIdAsc(name, limit)
+                    : authorRepository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(name, afterId, limit);
+        } else {
+            authors = afterId == null
+                    ? authorRepository.findByOrderByIdAsc(limit)
+                    : authorRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit);
+        }
+        return CursorPagination.toPage(authors, pageSize, Author::getId, authorMapper::toResponse);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.AUTHORS_CACHE, key = "#id")
     @Transactional(readOnly = true)
     public AuthorResponseDTO findById(UUID id) {
         Author author = findAuthorById(id);
         return authorMapper.toResponse(author);
     }
 
+    /**
+     * Looks up many authors at once with a single {@code IN} query.
+     *
+     * @param ids The IDs of the authors, at most {@value LookupRequestDTO#MAX_IDS}.
+     * @return The authors found, in the order of {@code ids}, and the IDs that were not found.
+     */
+    @Transactional(readOnly = true)
+    public LookupResponseDTO<AuthorResponseDTO> findAllById(List<UUID> ids) {
+        if (ids.size() > LookupRequestDTO.MAX_IDS) {
+            throw new TooManyIdsException("At most " + LookupRequestDTO.MAX_IDS + " ids can be looked up at once.");
+        }
+        List<AuthorResponseDTO> authors = authorRepository.findAllById(ids).stream()
+                .map(authorMapper::toResponse)
+                .toList();
+        return LookupResponseDTO.of(ids, authors, AuthorResponseDTO::id);
+    }
+
+    /**
+     * Computes the entity tag of an author from its version and book count alone, so conditional
+     * requests can be answered without loading or mapping the author. Matches {@link AuthorResponseDTO#eTag()}.
+     *
+     * @param id The ID of the author.
+     * @return The entity tag, or empty if the author does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findETag(UUID id) {
+        return authorRepository.findVersionById(id)
+                .map(version -> ETags.of(version.getVersion(), version.getBookCount()));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.AUTHOR_SEARCHES_CACHE, allEntries = true)
     @Transactional
     public AuthorResponseDTO create(AuthorRequestDTO requestDTO) {
         Author author = authorMapper.toEntity(requestDTO);
         Author savedAuthor = authorRepository.save(author);
-        return authorMapper.toResponse(savedAuthor);
+        AuthorResponseDTO responseDTO = authorMapper.toResponse(savedAuthor);
+        eventPublisher.publishEvent(ResourceChange.created(ResourceChange.Resource.AUTHOR, responseDTO.id(), responseDTO));
+        return responseDTO;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.BOOKS_CACHE, CacheConfig.BOOK_SEARCHES_CACHE,
+                    CacheConfig.AUTHOR_SEARCHES_CACHE}, allEntries = true)
+    })
     @Transactional
-    public AuthorResponseDTO update(UUID id, AuthorRequestDTO requestDTO) {
+    public AuthorResponseDTO update(UUID id, AuthorRequestDTO requestDTO, String ifMatch) {
         Author authorToUpdate = findAuthorById(id);
+        if (ifMatch != null
+                && !ETags.strongMatch(ifMatch, ETags.of(authorToUpdate.getVersion(), authorToUpdate.getBookCount()))) {
+            throw new PreconditionFailedException("Author with id " + id + " was modified since it was read.");
+        }
+        if (!authorToUpdate.getName().equals(requestDTO.name())) {
+            // The author's name is part of every book's representation, so their books changed too.
+            bookRepository.touchByAuthorId(id);
+        }
         authorToUpdate.setName(requestDTO.name());
-        Author updatedAuthor = authorRepository.save(authorToUpdate);
-        return authorMapper.toResponse(updatedAuthor);
+        // Flushed so that the response carries the incremented version.
+        Author updatedAuthor = authorRepository.saveAndFlush(authorToUpdate);
+        AuthorResponseDTO responseDTO = authorMapper.toResponse(updatedAuthor);
+        eventPublisher.publishEvent(ResourceChange.updated(ResourceChange.Resource.AUTHOR, id, responseDTO));
+        return responseDTO;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.BOOKS_CACHE, CacheConfig.AUTHOR_SEARCHES_CACHE}, allEntries = true)
+    })
     @Transactional
     public void delete(UUID id) {
-        if (!authorRepository.existsById(id)) {
+        if (authorRepository.removeById(id) == 0) {
             throw new ResourceNotFoundException("Author not found with id: " + id);
         }
-        authorRepository.deleteById(id);
+        eventPublisher.publishEvent(ResourceChange.deleted(ResourceChange.Resource.AUTHOR, id));
+    }
+
+    /**
+     * Adds {@code delta} to the book count of an author, inside the caller's transaction. Called by every
+     * write that creates, moves or deletes books, so the count never has to be computed on a read. Also
+     * clears the cached listing pages, which covers the bulk import and the write buffer, whose books are not
+     * created through {@code BookService}.
+     *
+     * @param id    The ID of the author.
+     * @param delta The number of books added (positive) or removed (negative).
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTHORS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.BOOK_SEARCHES_CACHE, CacheConfig.AUTHOR_SEARCHES_CACHE}, allEntries = true)
+    })
+    @Transactional
+    public void adjustBookCount(UUID id, long delta) {
+        authorRepository.adjustBookCount(id, delta);
     }
 
     private Author findAuthorById(UUID id) {
@@ -0,0 +1,117 @@
+package com.liras23.library.author.service;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.author.ReactiveAuthorRepository;
+import com.liras23.library.author.dto.AuthorRequestDTO;
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.book.ReactiveBookRepository;
+import com.liras23.library.common.config.ReactiveConfig;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.exception.PreconditionFailedException;
+import com.liras23.library.common.exception.ResourceNotFoundException;
+import com.liras23.library.common.exception.TooManyIdsException;
+import com.liras23.library.common.pagination.CursorPagination;
+import com.liras23.library.common.pagination.ReactivePaging;
+import com.liras23.library.common.persistence.UuidV7Generator;
+import com.liras23.library.common.web.ETags;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link AuthorService}, for the {@value ReactiveConfig#PROFILE} profile. Same
+ * behaviour and errors, without the local cache: every read goes to the database.
+ */
+@Service
+@Profile(ReactiveConfig.PROFILE)
+public class ReactiveAuthorService {
+
+    private final ReactiveAuthorRepository authorRepository;
+    private final ReactiveBookRepository bookRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveAuthorService(ReactiveAuthorRepository authorRepository, ReactiveBookRepository bookRepository,
+                                 TransactionalOperator transactionalOperator) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    public Mono<Page<AuthorResponseDTO>> findAll(String name, Pageable pageable) {
+        return ReactivePaging.page(authorRepository.findPage(name, pageable).collectList(), pageable,
+                authorRepository.count(name));
+    }
+
+    public Mono<CursorPageResponseDTO<AuthorResponseDTO>> findAllByCursor(String name, String cursor, int size) {
+        return Mono.defer(() -> {
+            UUID afterId = CursorPagination.decode(cursor);
+            int pageSize = CursorPagination.normalizeSize(size);
+            return authorRepository.findAfter(name, afterId, CursorPagination.limitFor(pageSize).max())
+                    .collectList()
+                    .map(authors -> CursorPagination.toPage(authors, pageSize, AuthorResponseDTO::id, Function.identity()));
+        });
+    }
+
+    public Mono<AuthorResponseDTO> findById(UUID id) {
+        return authorRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Author not found with id: " + id)));
+    }
+
+    /**
+     * See {@link AuthorService#findAllById}.
+     */
+    public Mono<LookupResponseDTO<AuthorResponseDTO>> findAllById(List<UUID> ids) {
+        if (ids.size() > LookupRequestDTO.MAX_IDS) {
+            return Mono.error(new TooManyIdsException("At most " + LookupRequestDTO.MAX_IDS + " ids can be looked up at once."));
+        }
+        return authorRepository.findAllById(ids)
+                .collectList()
+                .map(authors -> LookupResponseDTO.of(ids, authors, AuthorResponseDTO::id));
+    }
+
+    public Mono<AuthorResponseDTO> create(AuthorRequestDTO requestDTO) {
+        UUID id = UuidV7Generator.next();
+        return authorRepository.insert(id, requestDTO.name())
+                .thenReturn(new AuthorResponseDTO(id, requestDTO.name(), 0L, 0L));
+    }
+
+    /**
+     * See {@link AuthorService#update}. The version read for the {@code ifMatch} check is also the one the
+     * update is conditional on, so a concurrent change is reported as a conflict instead of being overwritten.
+     */
+    public Mono<AuthorResponseDTO> update(UUID id, AuthorRequestDTO requestDTO, String ifMatch) {
+        return findById(id)
+                .flatMap(current -> {
+                    if (ifMatch != null && !ETags.strongMatch(ifMatch, current.eTag())) {
+                        return Mono.error(new PreconditionFailedException("Author with id " + id + " was modified since it was read."));
+                    }
+                    if (Objects.equals(current.name(), requestDTO.name())) {
+                        return Mono.just(current);
+                    }
+                    return authorRepository.updateName(id, requestDTO.name(), current.version())
+                            .flatMap(updated -> updated == 0
+                                    ? Mono.error(new ObjectOptimisticLockingFailureException(Author.class, id))
+                                    : bookRepository.touchByAuthorId(id)
+                                            .thenReturn(new AuthorResponseDTO(id, requestDTO.name(), current.version() + 1, current.bookCount())));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> delete(UUID id) {
+        return authorRepository.removeById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new ResourceNotFoundException("Author not found with id: " + id))
+                        : Mono.empty());
+    }
+}
@@ -1,39 +1,99 @@
 package com.liras23.library.book;
 
 import com.liras23.library.author.Author;
+import com.liras23.library.common.persistence.UuidV7;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.Instant;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
-@Table(name = "books")
+@Table(
+        name = Book.TABLE,
+        indexes = {
+                @Index(name = "idx_books_author_id", columnList = "author_id, id"),
+                @Index(name = "idx_books_title", columnList = "title"),
+                @Index(name = "idx_books_updated_at", columnList = "updated_at, id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = Book.ISBN_UNIQUE, columnNames = "isbn")
+)
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Book {
 
+    public static final String TABLE = "books";
+
+    /**
+     * Name of the unique constraint on {@code isbn} (on PostgreSQL a unique index over {@code upper(isbn)});
+     * writes rely on it instead of looking the ISBN up first.
+     */
+    public static final String ISBN_UNIQUE = "uk_books_isbn";
+
+    /** Name of the foreign key from {@code author_id} to {@code authors}; writes rely on it instead of loading the author. */
+    public static final String AUTHOR_FOREIGN_KEY = "fk_books_author_id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
     private String title;
 
-    @ManyToOne
-    @JoinColumn(name = "author_id", nullable = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "author_id", nullable = false, foreignKey = @ForeignKey(name = AUTHOR_FOREIGN_KEY))
+    @ToString.Exclude
     private Author author;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String isbn;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Set by the database when the row is inserted; see {@link #updatedAt}.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
+    /**
+     * When the book was created or last changed, including changes to its author's name, which is part of
+     * the book's representation. Orders {@code GET /api/books/changes}. Stamped by the database on every
+     * insert and update, so that all change times come from its clock; a managed entity therefore does not
+     * see the new value until it is read again.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Instant updatedAt;
+
+    public Book(UUID id, String title, Author author, String isbn) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        setIsbn(isbn);
+    }
+
+    /**
+     * Stores the ISBN upper-cased, so the case-sensitive {@value #ISBN_UNIQUE} constraint rejects
+     * ISBNs that differ only in case, like the case-insensitive lookups do.
+     */
+    public void setIsbn(String isbn) {
+        this.isbn = isbn == null ? null : isbn.toUpperCase(Locale.ROOT);
+    }
 }
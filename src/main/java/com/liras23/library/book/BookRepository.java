@@ -1,30 +1,233 @@
 package com.liras23.library.book;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, UUID> {
 
+    /**
+     * Finds a page of books with their authors fetched in the same query.
+     * <p>
+     * {@code Book.author} is lazy, so every finder whose results are mapped to a response
+     * declares the {@code author} entity graph instead of loading authors one row at a time.
+     *
+     * @param pageable The pagination information.
+     * @return A page of books.
+     */
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Page<Book> findAll(Pageable pageable);
+
+    /**
+     * Finds a book by its ID with its author fetched in the same query.
+     *
+     * @param id The ID of the book.
+     * @return An Optional containing the book if found.
+     */
+    @Override
+    @EntityGraph(attributePaths = "author")
+    Optional<Book> findById(UUID id);
+
+    /**
+     * Finds the books with the given IDs with their authors fetched in the same query.
+     *
+     * @param ids The IDs of the books.
+     * @return The books found, in no particular order.
+     */
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Book> findAllById(Iterable<UUID> ids);
+
+    /**
+     * Reads only the versions of a book and of its author, enough to build the book's entity tag
+     * without loading or mapping the entity.
+     *
+     * @param id The ID of the book.
+     * @return An Optional containing the versions if the book exists.
+     */
+    @Query("select b.version as version, a.version as authorVersion from Book b join b.author a where b.id = :id")
+    Optional<BookVersions> findVersionsById(@Param("id") UUID id);
+
     /**
      * Finds all books whose title contains the given string, ignoring case.
+     * On PostgreSQL this is served by the {@code idx_books_title_trgm} trigram index.
      *
      * @param title    The string to search for in the book's title.
      * @param pageable The pagination information.
      * @return A page of books matching the criteria.
      */
+    @EntityGraph(attributePaths = "author")
     Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
     /**
-     * Finds a book by its ISBN, ignoring case.
+     * Finds a slice of books with their authors, fetching one row more than the page size to tell whether
+     * there is a next page instead of counting the whole table.
      *
-     * @param isbn The ISBN to search for.
-     * @return An Optional containing the book if found.
+     * @param pageable The pagination information.
+     * @return A slice of books.
+     */
+    @EntityGraph(attributePaths = "author")
+    Slice<Book> findSliceBy(Pageable pageable);
+
+    /**
+     * Finds a slice of the books whose title contains the given string, ignoring case, without the count
+     * query of {@link #findByTitleContainingIgnoreCase}, which scans every match again.
+     *
+     * @param title    The string to search for in the book's title.
+     * @param pageable The pagination information.
+     * @return A slice of books matching the criteria.
+     */
+    @EntityGraph(attributePaths = "author")
+    Slice<Book> findSliceByTitleContainingIgnoreCase(String title, Pageable pageable);
+
+    /**
+     * Finds a page of an author's books, through the {@code idx_books_author_id} index on {@code (author_id, id)}. Returns a list
+     * rather than a page, so no count query is run; the total is the author's book count.
+     *
+     * @param authorId The ID of the author.
+     * @param pageable The pagination information.
+     * @return The books of the requested page.
+     */
+    List<Book> findByAuthorId(UUID authorId, Pageable pageable);
+
+    /**
+     * Reads only the author ID of a book.
+     *
+     * @param id The ID of the book.
+     * @return An Optional containing the author ID if the book exists.
+     */
+    @Query("select b.author.id from Book b where b.id = :id")
+    Optional<UUID> findAuthorIdById(@Param("id") UUID id);
+
+    /**
+     * Deletes a book in a single statement, without loading it first as {@code deleteById} does.
+     *
+     * @param id The ID of the book.
+     * @return The number of books deleted, 0 if the book does not exist.
      */
-    Optional<Book> findByIsbnIgnoreCase(String isbn);
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Book b where b.id = :id")
+    int removeById(@Param("id") UUID id);
+
+    /**
+     * Marks every book of an author as changed, because the author's name is part of their representation.
+     * The database stamps the change time of each row it updates.
+     *
+     * @param authorId The ID of the author.
+     * @return The number of books marked.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.updatedAt = instant where b.author.id = :authorId")
+    int touchByAuthorId(@Param("authorId") UUID authorId);
+
+    /**
+     * Finds the books changed after a position of the change order, {@code (updatedAt, id)}, with their
+     * authors, through the {@code idx_books_updated_at} index.
+     *
+     * @param since   The time of the last change already seen.
+     * @param afterId The id of the last change already seen at {@code since}.
+     * @param until   The time up to which changes are returned, exclusive.
+     * @param limit   The maximum number of books to return.
+     * @return The next changed books in change order.
+     */
+    @Query("""
+            select b from Book b join fetch b.author
+            where b.updatedAt >= :since and (b.updatedAt > :since or b.id > :afterId) and b.updatedAt < :until
+            order by b.updatedAt, b.id""")
+    List<Book> findChangedAfter(@Param("since") Instant since, @Param("afterId") UUID afterId,
+                                @Param("until") Instant until, Limit limit);
+
+    /**
+     * Finds which of the given ISBNs already belong to a book, ignoring case.
+     *
+     * On PostgreSQL this is served by the {@code uk_books_isbn} unique index over {@code upper(isbn)}.
+     *
+     * @param isbns The upper-cased ISBNs to look for.
+     * @return The upper-cased ISBNs that already exist.
+     */
+    @Query("select upper(b.isbn) from Book b where upper(b.isbn) in :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Finds the first books in id order, for the first page of a keyset traversal.
+     *
+     * @param limit The maximum number of books to return.
+     * @return The books with the lowest ids.
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Book> findByOrderByIdAsc(Limit limit);
+
+    /**
+     * Finds the books whose id comes after the given one, in id order.
+     *
+     * @param id    The id of the last book of the previous page.
+     * @param limit The maximum number of books to return.
+     * @return The next books in id order.
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Book> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    /**
+     * Finds the first books whose title contains the given string, ignoring case, in id order.
+     *
+     * @param title The string to search for in the book's title.
+     * @param limit The maximum number of books to return.
+     * @return The matching books with the lowest ids.
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Book> findByTitleContainingIgnoreCaseOrderByIdAsc(String title, Limit limit);
+
+    /**
+     * Finds the books whose title contains the given string, ignoring case, and whose id comes after the given one.
+     *
+     * @param title The string to search for in the book's title.
+     * @param id    The id of the last book of the previous page.
+     * @param limit The maximum number of books to return.
+     * @return The next matching books in id order.
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Book> findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String title, UUID id, Limit limit);
+
+    /**
+     * Streams every book with its author in id order from a server-side cursor, fetching
+     * 500 rows per round trip. Must be consumed inside a transaction and closed.
+     *
+     * @return A stream over the whole catalog.
+     */
+    @Query("select b from Book b join fetch b.author order by b.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Book> streamAll();
+
+    /**
+     * Projection of the versions that make up a book's entity tag.
+     */
+    interface BookVersions {
+
+        Long getVersion();
+
+        Long getAuthorVersion();
+    }
 }
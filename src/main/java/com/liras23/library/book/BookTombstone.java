@@ -0,0 +1,33 @@
+package com.liras23.library.book;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Records that a book was deleted, so {@code GET /api/books/changes} can tell clients to drop their copy.
+ * Deletions stay hard deletes; one tombstone row is written in the same transaction.
+ */
+@Entity
+@Table(name = BookTombstone.TABLE, indexes = @Index(name = "idx_book_tombstones_deleted_at", columnList = "deleted_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookTombstone {
+
+    public static final String TABLE = "book_tombstones";
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,43 @@
+package com.liras23.library.book;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BookTombstoneRepository extends JpaRepository<BookTombstone, UUID> {
+
+    /**
+     * Writes the tombstone of a deleted book in a single statement; {@code save} would first look the id up.
+     * The deletion time is the column default, read from the database clock like every other change time.
+     *
+     * @param id The ID of the deleted book.
+     */
+    @Modifying
+    @Query(value = "insert into book_tombstones (id) values (:id)", nativeQuery = true)
+    void insert(@Param("id") UUID id);
+
+    /**
+     * Finds the tombstones after a position of the change order, {@code (deletedAt, id)}, through the
+     * {@code idx_book_tombstones_deleted_at} index.
+     *
+     * @param since   The time of the last change already seen.
+     * @param afterId The id of the last change already seen at {@code since}.
+     * @param until   The time up to which changes are returned, exclusive.
+     * @param limit   The maximum number of tombstones to return.
+     * @return The next tombstones in change order.
+     */
+    @Query("""
+            select t from BookTombstone t
+            where t.deletedAt >= :since and (t.deletedAt > :since or t.id > :afterId) and t.deletedAt < :until
+            order by t.deletedAt, t.id""")
+    List<BookTombstone> findDeletedAfter(@Param("since") Instant since, @Param("afterId") UUID afterId,
+                                         @Param("until") Instant until, Limit limit);
+}
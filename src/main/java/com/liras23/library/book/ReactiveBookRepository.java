@@ -0,0 +1,186 @@
+package com.liras23.library.book;
+
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.common.config.ReactiveConfig;
+import com.liras23.library.common.persistence.SqlFragments;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * R2DBC counterpart of {@link BookRepository}, for the {@value ReactiveConfig#PROFILE} profile. Books are
+ * read together with their author in one joined statement and mapped straight to {@link BookResponseDTO}s,
+ * with the author summary the JPA mapper produces.
+ */
+@Repository
+@Profile(ReactiveConfig.PROFILE)
+public class ReactiveBookRepository {
+
+    private static final String COLUMNS = """
+            SELECT b.id, b.title, b.isbn, b.version, a.id AS author_id, a.name AS author_name, a.version AS author_version
+            FROM books b JOIN authors a ON a.id = b.author_id""";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "b.id",
+            "title", "b.title",
+            "isbn", "b.isbn",
+            "version", "b.version");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveBookRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Finds a page of books, optionally only those whose title contains {@code title}, ignoring case.
+     */
+    public Flux<BookResponseDTO> findPage(String title, Pageable pageable) {
+        String sql = COLUMNS + SqlFragments.where(titleFilter(title))
+                + SqlFragments.orderBy(pageable.getSort(), SORT_COLUMNS, Book.class)
+                + SqlFragments.limit(pageable);
+        return bindTitle(databaseClient.sql(sql), title)
+                .map(ReactiveBookRepository::toResponse)
+                .all();
+    }
+
+    public Mono<Long> count(String title) {
+        String sql = "SELECT count(*) FROM books b" + SqlFragments.where(titleFilter(title));
+        return bindTitle(databaseClient.sql(sql), title)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Finds a page of the books of an author through the {@code books.author_id} index.
+     */
+    public Flux<BookResponseDTO> findByAuthorId(UUID authorId, Pageable pageable) {
+        String sql = COLUMNS + " WHERE b.author_id = :authorId"
+                + SqlFragments.orderBy(pageable.getSort(), SORT_COLUMNS, Book.class)
+                + SqlFragments.limit(pageable);
+        return databaseClient.sql(sql)
+                .bind("authorId", authorId)
+                .map(ReactiveBookRepository::toResponse)
+                .all();
+    }
+
+    /**
+     * Finds up to {@code limit} books in id order, after {@code afterId} when given, for cursor pagination.
+     */
+    public Flux<BookResponseDTO> findAfter(String title, UUID afterId, int limit) {
+        String sql = COLUMNS + SqlFragments.where(titleFilter(title), afterId != null ? "b.id > :afterId" : null)
+                + " ORDER BY b.id LIMIT " + limit;
+        DatabaseClient.GenericExecuteSpec spec = bindTitle(databaseClient.sql(sql), title);
+        if (afterId != null) {
+            spec = spec.bind("afterId", afterId);
+        }
+        return spec.map(ReactiveBookRepository::toResponse).all();
+    }
+
+    public Mono<BookResponseDTO> findById(UUID id) {
+        return databaseClient.sql(COLUMNS + " WHERE b.id = :id")
+                .bind("id", id)
+                .map(ReactiveBookRepository::toResponse)
+                .one();
+    }
+
+    public Flux<BookResponseDTO> findAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(COLUMNS + " WHERE b.id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveBookRepository::toResponse)
+                .all();
+    }
+
+    public Mono<UUID> findAuthorIdById(UUID id) {
+        return databaseClient.sql("SELECT author_id FROM books WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("author_id", UUID.class))
+                .one();
+    }
+
+    /**
+     * Inserts a book, relying on the {@value Book#ISBN_UNIQUE} constraint and the
+     * {@value Book#AUTHOR_FOREIGN_KEY} foreign key like {@link BookRepository#saveAndFlush} does.
+     */
+    public Mono<Void> insert(UUID id, String title, UUID authorId, String isbn) {
+        return databaseClient.sql("INSERT INTO books (id, title, author_id, isbn, version) VALUES (:id, :title, :authorId, :isbn, 0)")
+                .bind("id", id)
+                .bind("title", title)
+                .bind("authorId", authorId)
+                .bind("isbn", isbn)
+                .then();
+    }
+
+    /**
+     * Updates a book if it is still at {@code version}, incrementing the version like Hibernate does.
+     *
+     * @return The number of rows updated: 0 if the book was deleted or modified concurrently.
+     */
+    public Mono<Long> update(UUID id, String title, UUID authorId, String isbn, long version) {
+        return databaseClient.sql("""
+                        UPDATE books SET title = :title, author_id = :authorId, isbn = :isbn, version = version + 1
+                        WHERE id = :id AND version = :version""")
+                .bind("title", title)
+                .bind("authorId", authorId)
+                .bind("isbn", isbn)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @return The number of rows deleted: 0 if the book does not exist.
+     */
+    public Mono<Long> removeById(UUID id) {
+        return databaseClient.sql("DELETE FROM books WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * See {@link BookTombstoneRepository#insert}.
+     */
+    public Mono<Void> insertTombstone(UUID id) {
+        return databaseClient.sql("INSERT INTO book_tombstones (id) VALUES (:id)")
+                .bind("id", id)
+                .then();
+    }
+
+    /**
+     * See {@link BookRepository#touchByAuthorId}.
+     */
+    public Mono<Void> touchByAuthorId(UUID authorId) {
+        return databaseClient.sql("UPDATE books SET updated_at = CURRENT_TIMESTAMP WHERE author_id = :authorId")
+                .bind("authorId", authorId)
+                .then();
+    }
+
+    private static String titleFilter(String title) {
+        return StringUtils.hasText(title) ? "upper(b.title) LIKE upper(:title) " + SqlFragments.LIKE_ESCAPE : null;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindTitle(DatabaseClient.GenericExecuteSpec spec, String title) {
+        return StringUtils.hasText(title) ? spec.bind("title", SqlFragments.containing(title)) : spec;
+    }
+
+    private static BookResponseDTO toResponse(Readable row) {
+        AuthorResponseDTO author = new AuthorResponseDTO(row.get("author_id", UUID.class),
+                row.get("author_name", String.class), row.get("author_version", Long.class), null);
+        return new BookResponseDTO(row.get("id", UUID.class), row.get("title", String.class), author,
+                row.get("isbn", String.class), row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,53 @@
+package com.liras23.library.book.controller;
+
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.service.BookService;
+import com.liras23.library.common.config.ReactiveConfig;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@Profile("!" + ReactiveConfig.PROFILE)
+@RequestMapping("/api/authors/{authorId}/books")
+@Tag(name = "Books", description = "Endpoints for managing books")
+public class AuthorBookController {
+
+    private final BookService bookService;
+
+    public AuthorBookController(BookService bookService) {
+        this.bookService = bookService;
+    }
+
+    @Operation(
+            summary = "Find the books of an author",
+            description = "Returns a paginated list of the books of an author. The total is the author's bookCount, so no count query is run."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "404", description = "Author not found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Author not found with id: c0a80121-7ac0-191b-817a-c08ab0a12345\"}")))
+    })
+    @GetMapping
+    public ResponseEntity<Page<BookResponseDTO>> findAllByAuthor(
+            @PathVariable UUID authorId,
+            @ParameterObject Pageable pageable) {
+        Page<BookResponseDTO> page = bookService.findAllByAuthor(authorId, pageable);
+        return ResponseEntity.ok(page);
+    }
+}
@@ -1,8 +1,22 @@
 package com.liras23.library.book.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liras23.library.book.dto.BookBatchResponseDTO;
 import com.liras23.library.book.dto.BookRequestDTO;
 import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.service.BookChangeService;
+import com.liras23.library.book.service.BookExportService;
+import com.liras23.library.book.service.BookImportService;
 import com.liras23.library.book.service.BookService;
+import com.liras23.library.book.service.BookWriteBuffer;
+import com.liras23.library.common.config.ReactiveConfig;
+import com.liras23.library.common.dto.ChangesResponseDTO;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.dto.SliceResponseDTO;
+import com.liras23.library.common.web.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -12,24 +26,54 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
+@Profile("!" + ReactiveConfig.PROFILE)
 @RequestMapping("/api/books")
 @Tag(name = "Books", description = "Endpoints for managing books")
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final BookChangeService bookChangeService;
+    private final ObjectMapper objectMapper;
+    // Only present when library.books.write-buffer.enabled is set
+    private final BookWriteBuffer bookWriteBuffer;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService,
+                          BookExportService bookExportService, BookChangeService bookChangeService,
+                          ObjectMapper objectMapper, ObjectProvider<BookWriteBuffer> bookWriteBuffer) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
+        this.bookChangeService = bookChangeService;
+        this.objectMapper = objectMapper;
+        this.bookWriteBuffer = bookWriteBuffer.getIfAvailable();
     }
 
     @Operation(
@@ -47,29 +91,148 @@ public class BookController {
         return ResponseEntity.ok(page);
     }
 
+    @Operation(
+            summary = "Find all books without counting them",
+            description = "Returns a page of books like the default listing, but with hasNext instead of the total, so no count query is run. Unfiltered listings include estimatedTotal, a rough total from the database statistics. Can be filtered by title."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = SliceResponseDTO.class)))
+    })
+    @GetMapping(params = "slice=true")
+    public ResponseEntity<SliceResponseDTO<BookResponseDTO>> findSlice(
+            @RequestParam(required = false) String title,
+            @ParameterObject Pageable pageable) {
+        SliceResponseDTO<BookResponseDTO> slice = bookService.findSlice(title, pageable);
+        return ResponseEntity.ok(slice);
+    }
+
+    @Operation(
+            summary = "Find all books with a cursor",
+            description = "Returns books in id order using keyset pagination. Send an empty cursor for the first page and the returned nextCursor for the following ones. Can be filtered by title."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = CursorPageResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Invalid cursor: abc\"}")))
+    })
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageResponseDTO<BookResponseDTO>> findAllByCursor(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPageResponseDTO<BookResponseDTO> page = bookService.findAllByCursor(title, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(
+            summary = "Find books by a list of IDs",
+            description = "Returns the books with the given IDs (comma-separated, at most 100) in the order they were requested, each with its author, resolved with a single query. IDs that do not exist are listed in missing instead of failing the request."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved books", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = LookupResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Too many IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"At most 100 ids can be looked up at once.\"}")))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<LookupResponseDTO<BookResponseDTO>> findAllById(@RequestParam List<UUID> ids) {
+        LookupResponseDTO<BookResponseDTO> responseDTO = bookService.findAllById(ids);
+        return ResponseEntity.ok(responseDTO);
+    }
+
+    @Operation(
+            summary = "Look up books by a list of IDs",
+            description = "Same as GET with ids, with the IDs sent in the body, for lists too long for a URL."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved books", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = LookupResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data or too many IDs", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"At most 100 ids can be looked up at once.\"}")))
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<LookupResponseDTO<BookResponseDTO>> lookup(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "IDs of the books to find, at most 100.",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = LookupRequestDTO.class),
+                            examples = @ExampleObject(value = "{\"ids\": [\"123e4567-e89b-12d3-a456-426614174000\"]}")
+                    )
+            )
+            @Valid @RequestBody LookupRequestDTO requestDTO) {
+        LookupResponseDTO<BookResponseDTO> responseDTO = bookService.findAllById(requestDTO.ids());
+        return ResponseEntity.ok(responseDTO);
+    }
+
+    @Operation(
+            summary = "Find the books changed since a point in time",
+            description = "Returns the books created or changed, and tombstones (deleted: true) for the books deleted, oldest change first. Start with since (ISO-8601 instant, or nothing for a full sync) and continue with the returned nextCursor, which can also be kept to resume the next sync. Changes of the last seconds are only listed once every earlier write has committed."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved changes", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ChangesResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Invalid cursor: abc\"}")))
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesResponseDTO<BookResponseDTO>> findChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        ChangesResponseDTO<BookResponseDTO> changes = bookChangeService.findChanges(since, cursor, size);
+        return ResponseEntity.ok(changes);
+    }
+
+    @Operation(
+            summary = "Export the whole catalog",
+            description = "Streams every book, in id order, as NDJSON (one JSON object per line) or CSV. Rows are read from a database cursor and written as they arrive, so the export size is not limited by server memory."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Catalog streamed successfully", content = {
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                    @Content(mediaType = "text/csv")
+            })
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "NDJSON") BookExportService.Format format) {
+        StreamingResponseBody body = outputStream -> bookExportService.export(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("books." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @Operation(
             summary = "Find book by ID",
-            description = "Returns a single book by its unique ID."
+            description = "Returns a single book by its unique ID. The response carries an ETag; send it back in If-None-Match to get 304 Not Modified while the book is unchanged."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Successfully retrieved book", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = BookResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Book unchanged since the entity tag sent in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Book not found", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Book not found with id: 123e4567-e89b-12d3-a456-426614174000\"}")))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<BookResponseDTO> findById(@PathVariable UUID id) {
+    public ResponseEntity<BookResponseDTO> findById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> eTag = bookService.findETag(id);
+            if (eTag.isPresent() && ETags.weakMatch(ifNoneMatch, eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
         BookResponseDTO responseDTO = bookService.findById(id);
-        return ResponseEntity.ok(responseDTO);
+        return ResponseEntity.ok().eTag(responseDTO.eTag()).body(responseDTO);
     }
 
     @Operation(
             summary = "Create a new book",
-            description = "Creates a new book and associates it with an existing author."
+            description = "Creates a new book and associates it with an existing author. With the write buffer enabled, concurrent creations are written together in micro-batches, and a full queue answers 503 with Retry-After."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Book created successfully", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = BookResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"title\": \"Book title cannot be blank.\"}"))),
             @ApiResponse(responseCode = "404", description = "Author not found for the provided authorId", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Author not found with id: 123e4567-e89b-12d3-a456-426614174000\"}"))),
-            @ApiResponse(responseCode = "409", description = "ISBN already exists", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"A book with ISBN 978-0345339683 already exists.\"}")))
+            @ApiResponse(responseCode = "409", description = "ISBN already exists", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"A book with ISBN 978-0345339683 already exists.\"}"))),
+            @ApiResponse(responseCode = "503", description = "Write buffer queue is full; retry after the Retry-After header", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Too many book creations are waiting to be written. Try again later.\"}")))
     })
     @PostMapping
     public ResponseEntity<BookResponseDTO> create(
@@ -82,13 +245,55 @@ public class BookController {
                     )
             )
             @Valid @RequestBody BookRequestDTO requestDTO) {
-        BookResponseDTO responseDTO = bookService.create(requestDTO);
+        BookResponseDTO responseDTO = bookWriteBuffer != null
+                ? bookWriteBuffer.create(requestDTO)
+                : bookService.create(requestDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDTO);
     }
 
+    @Operation(
+            summary = "Import books in bulk",
+            description = "Creates many books at once from a JSON array. ISBN uniqueness and authors are checked per chunk with set-based queries and rows are inserted with JDBC batching. Every row gets its own result; invalid rows do not reject the others."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import processed; see the result of each row", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = BookBatchResponseDTO.class)))
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookBatchResponseDTO> createBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Books to create. Each authorId must refer to an existing author.",
+                    required = true,
+                    content = @Content(
+                            examples = @ExampleObject(value = "[{\"title\": \"The Hobbit\", \"authorId\": \"c0a80121-7ac0-191b-817a-c08ab0a12345\", \"isbn\": \"978-0345339683\"}]")
+                    )
+            )
+            @RequestBody List<BookRequestDTO> requestDTOs) {
+        BookBatchResponseDTO responseDTO = bookImportService.importBooks(requestDTOs.iterator());
+        return ResponseEntity.ok(responseDTO);
+    }
+
+    @Operation(
+            summary = "Import books in bulk from an NDJSON stream",
+            description = "Same as the JSON array import, but reads one book per line as the body streams in, so arbitrarily large catalogs can be sent in a single request. Lines that are not valid JSON are reported as invalid rows."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import processed; see the result of each row", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = BookBatchResponseDTO.class)))
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BookBatchResponseDTO> createBatchFromStream(InputStream body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Iterator<BookRequestDTO> requestDTOs = reader.lines()
+                    .filter(StringUtils::hasText)
+                    .map(this::readNdjsonLine)
+                    .iterator();
+            BookBatchResponseDTO responseDTO = bookImportService.importBooks(requestDTOs);
+            return ResponseEntity.ok(responseDTO);
+        }
+    }
+
     @Operation(
             summary = "Update an existing book",
-            description = "Updates the details of an existing book by its ID."
+            description = "Updates the details of an existing book by its ID. Send the ETag from a previous read in If-Match to have the update rejected with 412 if the book changed in the meantime."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Book updated successfully", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = BookResponseDTO.class))),
@@ -97,7 +302,9 @@ public class BookController {
                     @ExampleObject(name = "Book not found", value = "{\"error\": \"Book not found with id: 123e4567-e89b-12d3-a456-426614174000\"}"),
                     @ExampleObject(name = "Author not found", value = "{\"error\": \"Author not found with id: c0a80121-7ac0-191b-817a-c08ab0a12345\"}")
             })),
-            @ApiResponse(responseCode = "409", description = "ISBN already exists", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"A book with ISBN 978-0345339683 already exists.\"}")))
+            @ApiResponse(responseCode = "409", description = "ISBN already exists", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"A book with ISBN 978-0345339683 already exists.\"}"))),
+            @ApiResponse(responseCode = "409", description = "Book modified concurrently", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"The resource was modified by another request. Reload it and try again.\"}"))),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current entity tag", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, examples = @ExampleObject(value = "{\"error\": \"Book with id 123e4567-e89b-12d3-a456-426614174000 was modified since it was read.\"}")))
     })
     @PutMapping("/{id}")
     public ResponseEntity<BookResponseDTO> update(
@@ -110,9 +317,10 @@ public class BookController {
                             examples = @ExampleObject(value = "{\"title\": \"The Hobbit, or There and Back Again\", \"authorId\": \"c0a80121-7ac0-191b-817a-c08ab0a12345\", \"isbn\": \"978-0345339683\"}")
                     )
             )
-            @Valid @RequestBody BookRequestDTO requestDTO) {
-        BookResponseDTO responseDTO = bookService.update(id, requestDTO);
-        return ResponseEntity.ok(responseDTO);
+            @Valid @RequestBody BookRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookResponseDTO responseDTO = bookService.update(id, requestDTO, ifMatch);
+        return ResponseEntity.ok().eTag(responseDTO.eTag()).body(responseDTO);
     }
 
     @Operation(
@@ -128,4 +336,12 @@ public class BookController {
         bookService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private BookRequestDTO readNdjsonLine(String line) {
+        try {
+            return objectMapper.readValue(line, BookRequestDTO.class);
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+    }
 }
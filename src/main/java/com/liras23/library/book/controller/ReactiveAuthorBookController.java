@@ -0,0 +1,38 @@
+package com.liras23.library.book.controller;
+
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.service.ReactiveBookService;
+import com.liras23.library.common.config.ReactiveConfig;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * The route of {@link AuthorBookController} on WebFlux, for the {@value ReactiveConfig#PROFILE} profile.
+ */
+@RestController
+@RequestMapping("/api/authors/{authorId}/books")
+@Profile(ReactiveConfig.PROFILE)
+public class ReactiveAuthorBookController {
+
+    private final ReactiveBookService bookService;
+
+    public ReactiveAuthorBookController(ReactiveBookService bookService) {
+        this.bookService = bookService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<BookResponseDTO>>> findAllByAuthor(
+            @PathVariable UUID authorId,
+            Pageable pageable) {
+        return bookService.findAllByAuthor(authorId, pageable).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,94 @@
+package com.liras23.library.book.controller;
+
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.service.ReactiveBookService;
+import com.liras23.library.common.config.ReactiveConfig;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.web.ETags;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The routes of {@link BookController} on WebFlux, for the {@value ReactiveConfig#PROFILE} profile. Requests,
+ * responses, headers and errors are the same; see {@link BookController} for their documentation. The batch
+ * import and the export are bulk jobs that hold a JDBC connection for their whole run, so they are only
+ * served by the servlet stack.
+ */
+@RestController
+@RequestMapping("/api/books")
+@Profile(ReactiveConfig.PROFILE)
+public class ReactiveBookController {
+
+    private final ReactiveBookService bookService;
+
+    public ReactiveBookController(ReactiveBookService bookService) {
+        this.bookService = bookService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<BookResponseDTO>>> findAll(
+            @RequestParam(required = false) String title,
+            Pageable pageable) {
+        return bookService.findAll(title, pageable).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<CursorPageResponseDTO<BookResponseDTO>>> findAllByCursor(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return bookService.findAllByCursor(title, cursor, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<LookupResponseDTO<BookResponseDTO>>> findAllById(@RequestParam List<UUID> ids) {
+        return bookService.findAllById(ids).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/lookup")
+    public Mono<ResponseEntity<LookupResponseDTO<BookResponseDTO>>> lookup(@Valid @RequestBody LookupRequestDTO requestDTO) {
+        return bookService.findAllById(requestDTO.ids()).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BookResponseDTO>> findById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bookService.findById(id).map(responseDTO -> ifNoneMatch != null && ETags.weakMatch(ifNoneMatch, responseDTO.eTag())
+                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(responseDTO.eTag()).build()
+                : ResponseEntity.ok().eTag(responseDTO.eTag()).body(responseDTO));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<BookResponseDTO>> create(@Valid @RequestBody BookRequestDTO requestDTO) {
+        return bookService.create(requestDTO)
+                .map(responseDTO -> ResponseEntity.status(HttpStatus.CREATED).body(responseDTO));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<BookResponseDTO>> update(
+            @PathVariable UUID id,
+            @Valid @RequestBody BookRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return bookService.update(id, requestDTO, ifMatch)
+                .map(responseDTO -> ResponseEntity.ok().eTag(responseDTO.eTag()).body(responseDTO));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable UUID id) {
+        return bookService.delete(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
@@ -0,0 +1,18 @@
+package com.liras23.library.book.dto;
+
+import java.util.List;
+
+public record BookBatchResponseDTO(
+        int total,
+        int created,
+        int failed,
+        List<BookImportResultDTO> results
+) {
+
+    public static BookBatchResponseDTO of(List<BookImportResultDTO> results) {
+        int created = (int) results.stream()
+                .filter(result -> result.status() == BookImportStatus.CREATED)
+                .count();
+        return new BookBatchResponseDTO(results.size(), created, results.size() - created, results);
+    }
+}
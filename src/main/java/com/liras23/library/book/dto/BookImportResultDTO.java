@@ -0,0 +1,22 @@
+package com.liras23.library.book.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookImportResultDTO(
+        int index,
+        BookImportStatus status,
+        UUID id,
+        String error
+) {
+
+    public static BookImportResultDTO created(int index, UUID id) {
+        return new BookImportResultDTO(index, BookImportStatus.CREATED, id, null);
+    }
+
+    public static BookImportResultDTO rejected(int index, BookImportStatus status, String error) {
+        return new BookImportResultDTO(index, status, null, error);
+    }
+}
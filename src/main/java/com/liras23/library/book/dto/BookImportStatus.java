@@ -0,0 +1,9 @@
+package com.liras23.library.book.dto;
+
+public enum BookImportStatus {
+    CREATED,
+    INVALID,
+    DUPLICATE_ISBN,
+    AUTHOR_NOT_FOUND,
+    FAILED
+}
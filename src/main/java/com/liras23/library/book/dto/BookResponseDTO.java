@@ -1,6 +1,7 @@
 package com.liras23.library.book.dto;
 
 import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.common.web.ETags;
 
 import java.util.UUID;
 
@@ -8,6 +9,14 @@ public record BookResponseDTO(
         UUID id,
         String title,
         AuthorResponseDTO author,
-        String isbn
+        String isbn,
+        Long version
 ) {
+
+    /**
+     * The representation embeds the author, so its tag changes when either the book or the author changes.
+     */
+    public String eTag() {
+        return ETags.of(version, author.version());
+    }
 }
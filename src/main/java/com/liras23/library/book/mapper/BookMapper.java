@@ -1,5 +1,6 @@
 package com.liras23.library.book.mapper;
 
+import com.liras23.library.author.dto.AuthorResponseDTO;
 import com.liras23.library.author.mapper.AuthorMapper;
 import com.liras23.library.book.Book;
 import com.liras23.library.book.dto.BookRequestDTO;
@@ -32,8 +33,25 @@ public class BookMapper {
         return new BookResponseDTO(
                 entity.getId(),
                 entity.getTitle(),
-                authorMapper.toResponse(entity.getAuthor()),
-                entity.getIsbn()
+                authorMapper.toSummary(entity.getAuthor()),
+                entity.getIsbn(),
+                entity.getVersion()
+        );
+    }
+
+    /**
+     * Maps a book whose author representation is already at hand, without touching {@code entity.getAuthor()}.
+     */
+    public BookResponseDTO toResponse(Book entity, AuthorResponseDTO author) {
+        if (entity == null) {
+            return null;
+        }
+        return new BookResponseDTO(
+                entity.getId(),
+                entity.getTitle(),
+                authorMapper.toSummary(author),
+                entity.getIsbn(),
+                entity.getVersion()
         );
     }
 }
@@ -0,0 +1,100 @@
+package com.liras23.library.book.service;
+
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.BookTombstone;
+import com.liras23.library.book.BookTombstoneRepository;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import com.liras23.library.common.config.MetricsConfig;
+import com.liras23.library.common.dto.ChangeDTO;
+import com.liras23.library.common.dto.ChangesResponseDTO;
+import com.liras23.library.common.pagination.ChangeCursor;
+import com.liras23.library.common.pagination.CursorPagination;
+import com.liras23.library.common.persistence.DatabaseClock;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lists what changed in the catalog since a point in time, for clients that keep a copy of it: the books
+ * created or changed, and tombstones for the books deleted, merged in {@code (changedAt, id)} order.
+ * <p>
+ * Every change time, whether written by the servlet or the reactive stack, is stamped by the database
+ * clock when the row is written, a little before its transaction commits, so a write can become visible
+ * with a time earlier than changes already listed. Changes younger than
+ * {@code library.books.changes.settle-time}, measured on the same clock ({@link DatabaseClock}), are
+ * therefore held back until every write that could precede them has committed, and resuming from
+ * {@code nextCursor} never skips one. That holds as long as the settle time exceeds the longest time from a
+ * row write to its commit, plus the lag and clock offset of the replica serving the listing; write
+ * transactions here are single requests that last milliseconds, well under the 2 s default.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class BookChangeService {
+
+    private static final Comparator<ChangeDTO<?>> CHANGE_ORDER = Comparator
+            .<ChangeDTO<?>, Instant>comparing(ChangeDTO::changedAt)
+            .thenComparing(ChangeDTO::id, ChangeCursor.ID_ORDER);
+
+    private final BookRepository bookRepository;
+    private final BookTombstoneRepository bookTombstoneRepository;
+    private final BookMapper bookMapper;
+    private final DatabaseClock databaseClock;
+    private final Duration settleTime;
+
+    public BookChangeService(BookRepository bookRepository, BookTombstoneRepository bookTombstoneRepository,
+                             BookMapper bookMapper, DatabaseClock databaseClock,
+                             @Value("${library.books.changes.settle-time:2s}") Duration settleTime) {
+        this.bookRepository = bookRepository;
+        this.bookTombstoneRepository = bookTombstoneRepository;
+        this.bookMapper = bookMapper;
+        this.databaseClock = databaseClock;
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * Finds the next page of changes.
+     *
+     * @param since  Where to start when there is no cursor: changes made at or after this time. Defaults to
+     *               the beginning, for a full first sync.
+     * @param cursor The {@code nextCursor} of the previous page or sync, if any; takes precedence over
+     *               {@code since}.
+     * @param size   The page size.
+     * @return The changes, oldest first, and where to continue.
+     */
+    @Transactional(readOnly = true)
+    public ChangesResponseDTO<BookResponseDTO> findChanges(Instant since, String cursor, int size) {
+        ChangeCursor from = StringUtils.hasText(cursor)
+                ? ChangeCursor.decode(cursor)
+                : ChangeCursor.since(since != null ? since : Instant.EPOCH);
+        int pageSize = CursorPagination.normalizeSize(size);
+        Limit limit = CursorPagination.limitFor(pageSize);
+        Instant until = databaseClock.now().minus(settleTime);
+
+        List<ChangeDTO<BookResponseDTO>> changes = new ArrayList<>();
+        for (Book book : bookRepository.findChangedAfter(from.changedAt(), from.id(), until, limit)) {
+            changes.add(new ChangeDTO<>(book.getId(), book.getUpdatedAt(), false, bookMapper.toResponse(book)));
+        }
+        for (BookTombstone tombstone : bookTombstoneRepository.findDeletedAfter(from.changedAt(), from.id(), until, limit)) {
+            changes.add(new ChangeDTO<>(tombstone.getId(), tombstone.getDeletedAt(), true, null));
+        }
+        changes.sort(CHANGE_ORDER);
+
+        boolean hasNext = changes.size() > pageSize;
+        List<ChangeDTO<BookResponseDTO>> content = hasNext ? changes.subList(0, pageSize) : changes;
+        ChangeCursor next = content.isEmpty()
+                ? from
+                : new ChangeCursor(content.get(content.size() - 1).changedAt(), content.get(content.size() - 1).id());
+        return new ChangesResponseDTO<>(List.copyOf(content), pageSize, next.encode(), hasNext);
+    }
+}
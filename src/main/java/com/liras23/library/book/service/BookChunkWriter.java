@@ -0,0 +1,152 @@
+package com.liras23.library.book.service;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.author.service.AuthorService;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.dto.BookImportStatus;
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import com.liras23.library.change.ResourceChange;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates a chunk of books in one transaction with a fixed number of statements: one query for the ISBNs that
+ * already exist, one for the authors, a batched insert and one book count update per author. Both
+ * {@link BookImportService} and {@link BookWriteBuffer} write through it, so they reject and count books by the
+ * same rules.
+ */
+@Component
+public class BookChunkWriter {
+
+    /**
+     * The outcome of one request of a chunk: {@link BookImportStatus#CREATED} with the created book, or the
+     * reason it was not created. {@link BookImportStatus#FAILED} means the chunk was rolled back because a
+     * concurrent writer inserted one of its ISBNs after the check; the request itself may be fine.
+     */
+    public record Result(BookImportStatus status, BookResponseDTO book, String message) {
+
+        static Result created(BookResponseDTO book) {
+            return new Result(BookImportStatus.CREATED, book, null);
+        }
+
+        static Result rejected(BookImportStatus status, String message) {
+            return new Result(status, null, message);
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final AuthorService authorService;
+    private final BookMapper bookMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BookChunkWriter(BookRepository bookRepository, AuthorRepository authorRepository,
+                           AuthorService authorService, BookMapper bookMapper,
+                           PlatformTransactionManager transactionManager, EntityManager entityManager,
+                           ApplicationEventPublisher eventPublisher) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.authorService = authorService;
+        this.bookMapper = bookMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Creates the books of a chunk, skipping those whose ISBN already exists, in the database or earlier in the
+     * chunk, and those whose author does not exist.
+     *
+     * @param requests The books to create, already validated.
+     * @return The outcome of every request, in request order.
+     */
+    public List<Result> write(List<BookRequestDTO> requests) {
+        Result[] results = new Result[requests.size()];
+        Map<Integer, Book> booksToCreate = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> existingIsbns = findExistingIsbns(requests);
+                Map<UUID, Author> authors = findAuthors(requests);
+                Set<String> chunkIsbns = new HashSet<>();
+
+                for (int i = 0; i < requests.size(); i++) {
+                    BookRequestDTO request = requests.get(i);
+                    String isbn = normalizeIsbn(request.isbn());
+                    if (existingIsbns.contains(isbn) || !chunkIsbns.add(isbn)) {
+                        results[i] = Result.rejected(BookImportStatus.DUPLICATE_ISBN,
+                                "A book with ISBN " + request.isbn() + " already exists.");
+                        continue;
+                    }
+                    Author author = authors.get(request.authorId());
+                    if (author == null) {
+                        results[i] = Result.rejected(BookImportStatus.AUTHOR_NOT_FOUND,
+                                "Author not found with id: " + request.authorId());
+                        continue;
+                    }
+                    Book book = bookMapper.toEntity(request);
+                    book.setAuthor(author);
+                    booksToCreate.put(i, book);
+                }
+
+                bookRepository.saveAllAndFlush(booksToCreate.values());
+                booksToCreate.values().stream()
+                        .collect(Collectors.groupingBy(book -> book.getAuthor().getId(), Collectors.counting()))
+                        .forEach(authorService::adjustBookCount);
+                booksToCreate.forEach((i, book) -> {
+                    BookResponseDTO responseDTO = bookMapper.toResponse(book);
+                    eventPublisher.publishEvent(ResourceChange.created(ResourceChange.Resource.BOOK, responseDTO.id(), responseDTO));
+                    results[i] = Result.created(responseDTO);
+                });
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another writer inserted one of our ISBNs after the check; the whole chunk was rolled back.
+            booksToCreate.keySet().forEach(i -> results[i] = Result.rejected(BookImportStatus.FAILED,
+                    "Chunk rolled back because of a concurrent conflicting write."));
+        }
+        return Arrays.asList(results);
+    }
+
+    private Set<String> findExistingIsbns(List<BookRequestDTO> requests) {
+        Set<String> isbns = requests.stream()
+                .map(request -> normalizeIsbn(request.isbn()))
+                .collect(Collectors.toSet());
+        return isbns.isEmpty() ? Set.of() : new HashSet<>(bookRepository.findExistingIsbns(isbns));
+    }
+
+    private Map<UUID, Author> findAuthors(List<BookRequestDTO> requests) {
+        Set<UUID> authorIds = requests.stream()
+                .map(BookRequestDTO::authorId)
+                .collect(Collectors.toSet());
+        if (authorIds.isEmpty()) {
+            return Map.of();
+        }
+        return authorRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+    }
+
+    private static String normalizeIsbn(String isbn) {
+        return isbn.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,131 @@
+package com.liras23.library.book.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog to an output stream, row by row, straight from a database cursor.
+ * <p>
+ * The persistence context is cleared every {@value #CLEAR_INTERVAL} rows, so memory use does not
+ * grow with the size of the catalog.
+ */
+@Service
+public class BookExportService {
+
+    private static final int CLEAR_INTERVAL = 500;
+    private static final String CSV_HEADER = "id,title,isbn,authorId,authorName";
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String fileExtension;
+
+        Format(MediaType mediaType, String fileExtension) {
+            this.mediaType = mediaType;
+            this.fileExtension = fileExtension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public BookExportService(BookRepository bookRepository, BookMapper bookMapper, ObjectMapper objectMapper,
+                             EntityManager entityManager) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream outputStream) throws IOException {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            switch (format) {
+                case NDJSON -> writeNdjson(books.iterator(), outputStream);
+                case CSV -> writeCsv(books.iterator(), outputStream);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<Book> books, OutputStream outputStream) throws IOException {
+        int rows = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(StreamUtils.nonClosing(outputStream))) {
+            while (books.hasNext()) {
+                writer.write(bookMapper.toResponse(books.next()));
+                clearPeriodically(++rows);
+            }
+        }
+        if (rows > 0) {
+            outputStream.write('\n');
+        }
+    }
+
+    private void writeCsv(Iterator<Book> books, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        int rows = 0;
+        while (books.hasNext()) {
+            BookResponseDTO book = bookMapper.toResponse(books.next());
+            writer.write(String.join(",",
+                    book.id().toString(),
+                    csvField(book.title()),
+                    csvField(book.isbn()),
+                    book.author().id().toString(),
+                    csvField(book.author().name())));
+            writer.write("\r\n");
+            clearPeriodically(++rows);
+        }
+        writer.flush();
+    }
+
+    private void clearPeriodically(int rows) {
+        if (rows % CLEAR_INTERVAL == 0) {
+            entityManager.clear();
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
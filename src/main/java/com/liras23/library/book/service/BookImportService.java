@@ -0,0 +1,100 @@
+package com.liras23.library.book.service;
+
+import com.liras23.library.book.dto.BookBatchResponseDTO;
+import com.liras23.library.book.dto.BookImportResultDTO;
+import com.liras23.library.book.dto.BookImportStatus;
+import com.liras23.library.book.dto.BookRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports large numbers of books in chunks.
+ * <p>
+ * Each chunk is validated in memory, then written by the {@link BookChunkWriter}: checked for existing ISBNs
+ * and resolved against its authors with one set-based query each, and inserted in its own transaction through
+ * Hibernate JDBC batching. Every row gets its own result, so one bad row never rejects the rest of the chunk.
+ * The book counts of the authors involved are adjusted once per author and chunk.
+ */
+@Service
+public class BookImportService {
+
+    private final BookChunkWriter bookChunkWriter;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public BookImportService(BookChunkWriter bookChunkWriter, Validator validator,
+                             @Value("${library.books.import.chunk-size:500}") int chunkSize) {
+        this.bookChunkWriter = bookChunkWriter;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the given books, reading them lazily so that streamed input is never fully held in memory.
+     * A {@code null} element stands for a row that could not be parsed and is reported as invalid.
+     *
+     * @param requests The books to import, in input order.
+     * @return The result of every row, in input order.
+     */
+    public BookBatchResponseDTO importBooks(Iterator<BookRequestDTO> requests) {
+        List<BookImportResultDTO> results = new ArrayList<>();
+        List<BookRequestDTO> chunk = new ArrayList<>(chunkSize);
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            if (chunk.size() == chunkSize) {
+                results.addAll(importChunk(chunk, results.size()));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk, results.size()));
+        }
+        return BookBatchResponseDTO.of(results);
+    }
+
+    private List<BookImportResultDTO> importChunk(List<BookRequestDTO> chunk, int offset) {
+        BookImportResultDTO[] results = new BookImportResultDTO[chunk.size()];
+        List<Integer> validRows = new ArrayList<>(chunk.size());
+        List<BookRequestDTO> validRequests = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            BookRequestDTO request = chunk.get(i);
+            String violations = request == null ? "Row is empty or malformed." : validate(request);
+            if (violations != null) {
+                results[i] = BookImportResultDTO.rejected(offset + i, BookImportStatus.INVALID, violations);
+            } else {
+                validRows.add(i);
+                validRequests.add(request);
+            }
+        }
+
+        List<BookChunkWriter.Result> written = bookChunkWriter.write(validRequests);
+        for (int j = 0; j < written.size(); j++) {
+            int i = validRows.get(j);
+            BookChunkWriter.Result result = written.get(j);
+            results[i] = result.status() == BookImportStatus.CREATED
+                    ? BookImportResultDTO.created(offset + i, result.book().id())
+                    : BookImportResultDTO.rejected(offset + i, result.status(), result.message());
+        }
+        return List.of(results);
+    }
+
+    private String validate(BookRequestDTO request) {
+        Set<ConstraintViolation<BookRequestDTO>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -1,36 +1,80 @@
 package com.liras23.library.book.service;
 
-import com.liras23.library.author.Author;
 import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.author.service.AuthorService;
 import com.liras23.library.book.Book;
 import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.BookTombstoneRepository;
 import com.liras23.library.book.dto.BookRequestDTO;
 import com.liras23.library.book.dto.BookResponseDTO;
 import com.liras23.library.book.mapper.BookMapper;
+import com.liras23.library.change.ResourceChange;
+import com.liras23.library.common.config.CacheConfig;
+import com.liras23.library.common.config.MetricsConfig;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.dto.SliceResponseDTO;
 import com.liras23.library.common.exception.DuplicateResourceException;
+import com.liras23.library.common.exception.PreconditionFailedException;
 import com.liras23.library.common.exception.ResourceNotFoundException;
+import com.liras23.library.common.exception.TooManyIdsException;
+import com.liras23.library.common.pagination.CursorPagination;
+import com.liras23.library.common.pagination.OffsetPagination;
+import com.liras23.library.common.persistence.Constraints;
+import com.liras23.library.common.persistence.TableStatistics;
+import com.liras23.library.common.web.ETags;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class BookService {
 
     private final BookRepository bookRepository;
+    private final BookTombstoneRepository bookTombstoneRepository;
     private final AuthorRepository authorRepository;
+    private final AuthorService authorService;
     private final BookMapper bookMapper;
+    private final TableStatistics tableStatistics;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BookService(BookRepository bookRepository, AuthorRepository authorRepository, BookMapper bookMapper) {
+    public BookService(BookRepository bookRepository, BookTombstoneRepository bookTombstoneRepository,
+                       AuthorRepository authorRepository, AuthorService authorService, BookMapper bookMapper,
+                       TableStatistics tableStatistics, ApplicationEventPublisher eventPublisher) {
         this.bookRepository = bookRepository;
+        this.bookTombstoneRepository = bookTombstoneRepository;
         this.authorRepository = authorRepository;
+        this.authorService = authorService;
         this.bookMapper = bookMapper;
+        this.tableStatistics = tableStatistics;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Finds a page of books, optionally filtered by title. Pages are cached by filter, page, size and sort
+     * until the next book or author write, since a few popular searches make up most of these calls and
+     * each one otherwise runs the search and its count again.
+     */
+    @Cacheable(cacheNames = CacheConfig.BOOK_SEARCHES_CACHE, condition = "@searchCaching.books()",
+            key = "T(com.liras23.library.common.config.CacheConfig).searchKey(#title, #pageable)")
     @Transactional(readOnly = true)
     public Page<BookResponseDTO> findAll(String title, Pageable pageable) {
         Page<Book> page;
@@ -42,44 +86,177 @@ public class BookService {
         return page.map(bookMapper::toResponse);
     }
 
+    /**
+     * Finds a page of books without counting them: one row more than the page is read to tell whether a next
+     * page exists. Unfiltered listings carry the estimated number of books from the table statistics.
+     *
+     * @param title    The string to search for in the book's title, if any.
+     * @param pageable The pagination information.
+     * @return A slice of books.
+     */
+    @Transactional(readOnly = true)
+    public SliceResponseDTO<BookResponseDTO> findSlice(String title, Pageable pageable) {
+        if (StringUtils.hasText(title)) {
+            return SliceResponseDTO.of(bookRepository.findSliceByTitleContainingIgnoreCase(title, pageable)
+                    .map(bookMapper::toResponse), OptionalLong.empty());
+        }
+        return SliceResponseDTO.of(bookRepository.findSliceBy(pageable).map(bookMapper::toResponse),
+                tableStatistics.estimateRowCount(Book.TABLE));
+    }
+
+    /**
+     * Finds a page of an author's books. The books are read through the {@code books.author_id} index, in id
+     * order after the requested sort, and the total comes from the author's book count, so no {@code COUNT(*)}
+     * query is issued.
+     *
+     * @param authorId The ID of the author.
+     * @param pageable The pagination information.
+     * @return A page of the author's books.
+     */
+    @Transactional(readOnly = true)
+    public Page<BookResponseDTO> findAllByAuthor(UUID authorId, Pageable pageable) {
+        AuthorResponseDTO author = authorService.findById(authorId);
+        List<BookResponseDTO> books = bookRepository.findByAuthorId(authorId, OffsetPagination.orderedById(pageable)).stream()
+                .map(book -> bookMapper.toResponse(book, author))
+                .toList();
+        return new PageImpl<>(books, pageable, author.bookCount());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<BookResponseDTO> findAllByCursor(String title, String cursor, int size) {
+        UUID afterId = CursorPagination.decode(cursor);
+        int pageSize = CursorPagination.normalizeSize(size);
+        Limit limit = CursorPagination.limitFor(pageSize);
+
+        List<Book> books;
+        if (StringUtils.hasText(title)) {
+            books = afterId == null
+                    ? bookRepository.findByTitleContainingIgnoreCaseOrderByIdAsc(title, limit)
+                    : bookRepository.findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(title, afterId, limit);
+        } else {
+            books = afterId == null
+                    ? bookRepository.findByOrderByIdAsc(limit)
+                    : bookRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit);
+        }
+        return CursorPagination.toPage(books, pageSize, Book::getId, bookMapper::toResponse);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
     @Transactional(readOnly = true)
     public BookResponseDTO findById(UUID id) {
         Book book = findBookById(id);
         return bookMapper.toResponse(book);
     }
 
+    /**
+     * Looks up many books at once with a single {@code IN} query that also fetches their authors.
+     *
+     * @param ids The IDs of the books, at most {@value LookupRequestDTO#MAX_IDS}.
+     * @return The books found, in the order of {@code ids}, and the IDs that were not found.
+     */
+    @Transactional(readOnly = true)
+    public LookupResponseDTO<BookResponseDTO> findAllById(List<UUID> ids) {
+        if (ids.size() > LookupRequestDTO.MAX_IDS) {
+            throw new TooManyIdsException("At most " + LookupRequestDTO.MAX_IDS + " ids can be looked up at once.");
+        }
+        List<BookResponseDTO> books = bookRepository.findAllById(ids).stream()
+                .map(bookMapper::toResponse)
+                .toList();
+        return LookupResponseDTO.of(ids, books, BookResponseDTO::id);
+    }
+
+    /**
+     * Computes the entity tag of a book from its version and its author's version alone, so conditional
+     * requests can be answered without loading or mapping the book. Matches {@link BookResponseDTO#eTag()}.
+     *
+     * @param id The ID of the book.
+     * @return The entity tag, or empty if the book does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findETag(UUID id) {
+        return bookRepository.findVersionsById(id)
+                .map(versions -> ETags.of(versions.getVersion(), versions.getAuthorVersion()));
+    }
+
+    /**
+     * Creates a book in two statements: the insert, which relies on the {@value Book#ISBN_UNIQUE}
+     * constraint and the {@value Book#AUTHOR_FOREIGN_KEY} foreign key instead of reading the ISBN and
+     * the author first, and the author's book count update. The author in the response usually comes
+     * from the cache.
+     */
+    @CacheEvict(cacheNames = CacheConfig.BOOK_SEARCHES_CACHE, allEntries = true)
     @Transactional
     public BookResponseDTO create(BookRequestDTO requestDTO) {
-        validateIsbnUniqueness(requestDTO.isbn());
-        Author author = findAuthorById(requestDTO.authorId());
-
         Book book = bookMapper.toEntity(requestDTO);
-        book.setAuthor(author);
+        book.setAuthor(authorRepository.getReferenceById(requestDTO.authorId()));
 
-        Book savedBook = bookRepository.save(book);
-        return bookMapper.toResponse(savedBook);
+        Book savedBook = saveAndFlush(book);
+        authorService.adjustBookCount(requestDTO.authorId(), 1);
+        BookResponseDTO responseDTO = bookMapper.toResponse(savedBook, authorService.findById(requestDTO.authorId()));
+        eventPublisher.publishEvent(ResourceChange.created(ResourceChange.Resource.BOOK, responseDTO.id(), responseDTO));
+        return responseDTO;
     }
 
+    /**
+     * Updates a book after loading it, with its author, to check {@code ifMatch}. Like {@link #create},
+     * ISBN conflicts and unknown authors are detected by the constraints when the update is flushed.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_SEARCHES_CACHE, allEntries = true)
+    })
     @Transactional
-    public BookResponseDTO update(UUID id, BookRequestDTO requestDTO) {
+    public BookResponseDTO update(UUID id, BookRequestDTO requestDTO, String ifMatch) {
         Book bookToUpdate = findBookById(id);
-        validateIsbnUniqueness(requestDTO.isbn(), bookToUpdate.getId());
-        Author author = findAuthorById(requestDTO.authorId());
+        if (ifMatch != null
+                && !ETags.strongMatch(ifMatch, ETags.of(bookToUpdate.getVersion(), bookToUpdate.getAuthor().getVersion()))) {
+            throw new PreconditionFailedException("Book with id " + id + " was modified since it was read.");
+        }
+        UUID previousAuthorId = bookToUpdate.getAuthor().getId();
+        boolean authorChanged = !previousAuthorId.equals(requestDTO.authorId());
 
         bookToUpdate.setTitle(requestDTO.title());
         bookToUpdate.setIsbn(requestDTO.isbn());
-        bookToUpdate.setAuthor(author);
+        if (authorChanged) {
+            bookToUpdate.setAuthor(authorRepository.getReferenceById(requestDTO.authorId()));
+        }
 
-        Book updatedBook = bookRepository.save(bookToUpdate);
-        return bookMapper.toResponse(updatedBook);
+        // Flushed so that constraint violations surface here and the response carries the incremented version.
+        Book updatedBook = saveAndFlush(bookToUpdate);
+        BookResponseDTO responseDTO;
+        if (authorChanged) {
+            authorService.adjustBookCount(previousAuthorId, -1);
+            authorService.adjustBookCount(requestDTO.authorId(), 1);
+            responseDTO = bookMapper.toResponse(updatedBook, authorService.findById(requestDTO.authorId()));
+        } else {
+            responseDTO = bookMapper.toResponse(updatedBook);
+        }
+        eventPublisher.publishEvent(ResourceChange.updated(ResourceChange.Resource.BOOK, id, responseDTO));
+        return responseDTO;
     }
 
+    /**
+     * Deletes a book and leaves a tombstone for it, so clients syncing through the change listing learn
+     * about the deletion.
+     * <p>
+     * Four statements, none of which loads the entity: the author id is read on its own, since JPQL deletes
+     * cannot return it and the author's book count must follow; then the delete, checked by row count in
+     * case a concurrent delete won in between; then the tombstone insert and the count update.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.BOOK_SEARCHES_CACHE, allEntries = true)
+    })
     @Transactional
     public void delete(UUID id) {
-        if (!bookRepository.existsById(id)) {
+        UUID authorId = bookRepository.findAuthorIdById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        if (bookRepository.removeById(id) == 0) {
             throw new ResourceNotFoundException("Book not found with id: " + id);
         }
-        bookRepository.deleteById(id);
+        bookTombstoneRepository.insert(id);
+        authorService.adjustBookCount(authorId, -1);
+        eventPublisher.publishEvent(ResourceChange.deleted(ResourceChange.Resource.BOOK, id));
     }
 
     private Book findBookById(UUID id) {
@@ -87,24 +264,17 @@ public class BookService {
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
     }
 
-    private Author findAuthorById(UUID authorId) {
-        return authorRepository.findById(authorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Author not found with id: " + authorId));
-    }
-
-    private void validateIsbnUniqueness(String isbn) {
-        bookRepository.findByIsbnIgnoreCase(isbn)
-                .ifPresent(book -> {
-                    throw new DuplicateResourceException("A book with ISBN " + isbn + " already exists.");
-                });
-    }
-
-    private void validateIsbnUniqueness(String isbn, UUID currentBookId) {
-        Optional<Book> existingBook = bookRepository.findByIsbnIgnoreCase(isbn);
-        existingBook.ifPresent(book -> {
-            if (!book.getId().equals(currentBookId)) {
-                throw new DuplicateResourceException("A book with ISBN " + isbn + " already exists.");
+    private Book saveAndFlush(Book book) {
+        try {
+            return bookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException ex) {
+            if (Constraints.violated(ex, Book.ISBN_UNIQUE)) {
+                throw new DuplicateResourceException("A book with ISBN " + book.getIsbn() + " already exists.");
             }
-        });
+            if (Constraints.violated(ex, Book.AUTHOR_FOREIGN_KEY)) {
+                throw new ResourceNotFoundException("Author not found with id: " + book.getAuthor().getId());
+            }
+            throw ex;
+        }
     }
 }
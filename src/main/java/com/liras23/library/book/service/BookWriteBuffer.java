@@ -0,0 +1,242 @@
+package com.liras23.library.book.service;
+
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.common.exception.DuplicateResourceException;
+import com.liras23.library.common.exception.ResourceNotFoundException;
+import com.liras23.library.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces single book creations into micro-batches, one transaction each, when
+ * {@code library.books.write-buffer.enabled} is set.
+ * <p>
+ * Callers queue their request and wait for its own outcome. A flusher thread takes the first queued request,
+ * waits at most {@code max-wait} for more, up to {@code max-batch-size}, and writes them through the
+ * {@link BookChunkWriter}, like a {@link BookImportService} chunk: one query for the existing ISBNs, one for the
+ * authors, a batched insert and one book count update per author. Rejected requests get the same {@link DuplicateResourceException} or
+ * {@link ResourceNotFoundException} as {@link BookService#create}. When a concurrent writer wins an ISBN after
+ * the check, the batch is rolled back and its requests are created one by one through {@link BookService}.
+ * <p>
+ * The queue holds at most {@code queue-capacity} requests. A caller that cannot queue within
+ * {@code offer-timeout}, or whose batch is not written within {@code result-timeout}, is turned away with a
+ * {@link ServiceUnavailableException}; in the latter case the book may still be created, and a retry then gets
+ * a {@link DuplicateResourceException}. Should the flusher thread die, every queued and later caller is turned
+ * away the same way instead of waiting for it.
+ */
+@Service
+@ConditionalOnProperty(prefix = "library.books.write-buffer", name = "enabled", havingValue = "true")
+public class BookWriteBuffer implements InitializingBean, DisposableBean {
+
+    public static final String METRIC_PREFIX = "library.books.write-buffer";
+
+    private static final Logger log = LoggerFactory.getLogger(BookWriteBuffer.class);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private record PendingCreate(BookRequestDTO request, CompletableFuture<BookResponseDTO> result) {
+    }
+
+    private final BookChunkWriter bookChunkWriter;
+    private final BookService bookService;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long offerTimeoutNanos;
+    private final long resultTimeoutNanos;
+    private final BlockingQueue<PendingCreate> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter rejections;
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    public BookWriteBuffer(BookChunkWriter bookChunkWriter, BookService bookService, MeterRegistry meterRegistry,
+                           @Value("${library.books.write-buffer.max-batch-size:100}") int maxBatchSize,
+                           @Value("${library.books.write-buffer.max-wait:2ms}") Duration maxWait,
+                           @Value("${library.books.write-buffer.queue-capacity:10000}") int queueCapacity,
+                           @Value("${library.books.write-buffer.offer-timeout:1s}") Duration offerTimeout,
+                           @Value("${library.books.write-buffer.result-timeout:5s}") Duration resultTimeout) {
+        this.bookChunkWriter = bookChunkWriter;
+        this.bookService = bookService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.resultTimeoutNanos = resultTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .description("Book creations written per transaction")
+                .register(meterRegistry);
+        this.rejections = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Book creations turned away because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queued", queue, BlockingQueue::size)
+                .description("Book creations waiting to be written")
+                .register(meterRegistry);
+        this.flusher = new Thread(this::run, "book-write-buffer");
+        this.flusher.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        flusher.start();
+    }
+
+    /**
+     * Writes whatever is still queued and stops the flusher.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        closed = true;
+        flusher.join(Duration.ofSeconds(30));
+        List<PendingCreate> stranded = new ArrayList<>();
+        queue.drainTo(stranded);
+        fail(stranded, unavailable());
+    }
+
+    /**
+     * Queues a book creation and waits until the batch it went into is written.
+     *
+     * @param requestDTO The book to create, already validated.
+     * @return The created book, as {@link BookService#create} returns it.
+     * @throws ServiceUnavailableException when the queue stays full for longer than {@code offer-timeout}, the
+     *                                     batch is not written within {@code result-timeout} or the buffer has
+     *                                     stopped.
+     */
+    public BookResponseDTO create(BookRequestDTO requestDTO) {
+        PendingCreate pending = new PendingCreate(requestDTO, new CompletableFuture<>());
+        try {
+            if (closed || !queue.offer(pending, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejections.increment();
+                throw unavailable();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw unavailable();
+        }
+        try {
+            return pending.result().get(resultTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause
+                    ? cause
+                    : new IllegalStateException("Book creation failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ServiceUnavailableException("The book creation was not written in time. Try again later.",
+                    RETRY_AFTER);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw unavailable();
+        }
+    }
+
+    private void run() {
+        List<PendingCreate> batch = List.of();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                batch = nextBatch();
+                try {
+                    flush(batch);
+                } catch (RuntimeException ex) {
+                    log.error("Book write buffer flush failed", ex);
+                    fail(batch, ex);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Error error) {
+            log.error("Book write buffer stopped", error);
+            fail(batch, unavailable());
+        } finally {
+            // Anyone still queued, or queuing from now on, is turned away instead of waiting for a dead thread.
+            closed = true;
+            List<PendingCreate> stranded = new ArrayList<>();
+            queue.drainTo(stranded);
+            fail(stranded, unavailable());
+        }
+    }
+
+    /**
+     * Waits for the first queued request, then at most {@code max-wait} for more.
+     *
+     * @return The batch; empty when nothing was queued within the idle poll.
+     */
+    private List<PendingCreate> nextBatch() throws InterruptedException {
+        PendingCreate first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            PendingCreate next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private static void fail(List<PendingCreate> batch, RuntimeException ex) {
+        batch.forEach(pending -> pending.result().completeExceptionally(ex));
+    }
+
+    private void flush(List<PendingCreate> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        List<BookChunkWriter.Result> results;
+        try {
+            results = bookChunkWriter.write(batch.stream().map(PendingCreate::request).toList());
+        } catch (RuntimeException ex) {
+            fail(batch, ex);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            PendingCreate pending = batch.get(i);
+            BookChunkWriter.Result result = results.get(i);
+            switch (result.status()) {
+                case CREATED -> pending.result().complete(result.book());
+                case DUPLICATE_ISBN -> pending.result().completeExceptionally(
+                        new DuplicateResourceException(result.message()));
+                case AUTHOR_NOT_FOUND -> pending.result().completeExceptionally(
+                        new ResourceNotFoundException(result.message()));
+                // The batch was rolled back because a concurrent writer won one of its ISBNs.
+                default -> createAlone(pending);
+            }
+        }
+    }
+
+    private void createAlone(PendingCreate pending) {
+        try {
+            pending.result().complete(bookService.create(pending.request()));
+        } catch (RuntimeException ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    private static ServiceUnavailableException unavailable() {
+        return new ServiceUnavailableException("Too many book creations are waiting to be written. Try again later.",
+                RETRY_AFTER);
+    }
+}
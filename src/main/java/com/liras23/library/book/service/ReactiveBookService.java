@@ -0,0 +1,179 @@
+package com.liras23.library.book.service;
+
+import com.liras23.library.author.ReactiveAuthorRepository;
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.author.service.ReactiveAuthorService;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.ReactiveBookRepository;
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.common.config.ReactiveConfig;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.exception.DuplicateResourceException;
+import com.liras23.library.common.exception.PreconditionFailedException;
+import com.liras23.library.common.exception.ResourceNotFoundException;
+import com.liras23.library.common.exception.TooManyIdsException;
+import com.liras23.library.common.pagination.CursorPagination;
+import com.liras23.library.common.pagination.OffsetPagination;
+import com.liras23.library.common.pagination.ReactivePaging;
+import com.liras23.library.common.persistence.Constraints;
+import com.liras23.library.common.persistence.UuidV7Generator;
+import com.liras23.library.common.web.ETags;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link BookService}, for the {@value ReactiveConfig#PROFILE} profile. Writes
+ * run the same statements in one R2DBC transaction: the book write, relying on the constraints, and the
+ * author's book count update. Reads are not cached.
+ */
+@Service
+@Profile(ReactiveConfig.PROFILE)
+public class ReactiveBookService {
+
+    private final ReactiveBookRepository bookRepository;
+    private final ReactiveAuthorRepository authorRepository;
+    private final ReactiveAuthorService authorService;
+    private final AuthorMapper authorMapper;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveBookService(ReactiveBookRepository bookRepository, ReactiveAuthorRepository authorRepository,
+                               ReactiveAuthorService authorService, AuthorMapper authorMapper,
+                               TransactionalOperator transactionalOperator) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.authorService = authorService;
+        this.authorMapper = authorMapper;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    public Mono<Page<BookResponseDTO>> findAll(String title, Pageable pageable) {
+        return ReactivePaging.page(bookRepository.findPage(title, pageable).collectList(), pageable,
+                bookRepository.count(title));
+    }
+
+    /**
+     * See {@link BookService#findAllByAuthor}: the total is the author's book count.
+     */
+    public Mono<Page<BookResponseDTO>> findAllByAuthor(UUID authorId, Pageable pageable) {
+        return authorService.findById(authorId)
+                .flatMap(author -> bookRepository.findByAuthorId(authorId, OffsetPagination.orderedById(pageable))
+                        .collectList()
+                        .map(books -> new PageImpl<>(books, pageable, author.bookCount())));
+    }
+
+    public Mono<CursorPageResponseDTO<BookResponseDTO>> findAllByCursor(String title, String cursor, int size) {
+        return Mono.defer(() -> {
+            UUID afterId = CursorPagination.decode(cursor);
+            int pageSize = CursorPagination.normalizeSize(size);
+            return bookRepository.findAfter(title, afterId, CursorPagination.limitFor(pageSize).max())
+                    .collectList()
+                    .map(books -> CursorPagination.toPage(books, pageSize, BookResponseDTO::id, Function.identity()));
+        });
+    }
+
+    public Mono<BookResponseDTO> findById(UUID id) {
+        return bookRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Book not found with id: " + id)));
+    }
+
+    /**
+     * See {@link BookService#findAllById}.
+     */
+    public Mono<LookupResponseDTO<BookResponseDTO>> findAllById(List<UUID> ids) {
+        if (ids.size() > LookupRequestDTO.MAX_IDS) {
+            return Mono.error(new TooManyIdsException("At most " + LookupRequestDTO.MAX_IDS + " ids can be looked up at once."));
+        }
+        return bookRepository.findAllById(ids)
+                .collectList()
+                .map(books -> LookupResponseDTO.of(ids, books, BookResponseDTO::id));
+    }
+
+    /**
+     * See {@link BookService#create}.
+     */
+    public Mono<BookResponseDTO> create(BookRequestDTO requestDTO) {
+        UUID id = UuidV7Generator.next();
+        String isbn = normalizeIsbn(requestDTO.isbn());
+        return bookRepository.insert(id, requestDTO.title(), requestDTO.authorId(), isbn)
+                .onErrorMap(DataIntegrityViolationException.class, ex -> translate(ex, isbn, requestDTO.authorId()))
+                .then(authorRepository.adjustBookCount(requestDTO.authorId(), 1))
+                .then(authorService.findById(requestDTO.authorId()))
+                .map(author -> new BookResponseDTO(id, requestDTO.title(), authorMapper.toSummary(author), isbn, 0L))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * See {@link BookService#update}. The versions read for the {@code ifMatch} check are also the ones the
+     * update is conditional on, and nothing is written when nothing changed, as with Hibernate's dirty checking.
+     */
+    public Mono<BookResponseDTO> update(UUID id, BookRequestDTO requestDTO, String ifMatch) {
+        String isbn = normalizeIsbn(requestDTO.isbn());
+        return findById(id)
+                .flatMap(current -> {
+                    if (ifMatch != null && !ETags.strongMatch(ifMatch, current.eTag())) {
+                        return Mono.error(new PreconditionFailedException("Book with id " + id + " was modified since it was read."));
+                    }
+                    UUID previousAuthorId = current.author().id();
+                    boolean authorChanged = !previousAuthorId.equals(requestDTO.authorId());
+                    if (!authorChanged && Objects.equals(current.title(), requestDTO.title())
+                            && Objects.equals(current.isbn(), isbn)) {
+                        return Mono.just(current);
+                    }
+
+                    Mono<AuthorResponseDTO> author = authorChanged
+                            ? authorRepository.adjustBookCount(previousAuthorId, -1)
+                                    .then(authorRepository.adjustBookCount(requestDTO.authorId(), 1))
+                                    .then(authorService.findById(requestDTO.authorId()))
+                                    .map(authorMapper::toSummary)
+                            : Mono.just(current.author());
+                    return bookRepository.update(id, requestDTO.title(), requestDTO.authorId(), isbn, current.version())
+                            .onErrorMap(DataIntegrityViolationException.class, ex -> translate(ex, isbn, requestDTO.authorId()))
+                            .flatMap(updated -> updated == 0
+                                    ? Mono.<AuthorResponseDTO>error(new ObjectOptimisticLockingFailureException(Book.class, id))
+                                    : author)
+                            .map(newAuthor -> new BookResponseDTO(id, requestDTO.title(), newAuthor, isbn, current.version() + 1));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Void> delete(UUID id) {
+        return bookRepository.findAuthorIdById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Book not found with id: " + id)))
+                .flatMap(authorId -> bookRepository.removeById(id)
+                        .flatMap(deleted -> deleted == 0
+                                ? Mono.<Void>error(new ResourceNotFoundException("Book not found with id: " + id))
+                                : bookRepository.insertTombstone(id).then(authorRepository.adjustBookCount(authorId, -1))))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static String normalizeIsbn(String isbn) {
+        return isbn == null ? null : isbn.toUpperCase(Locale.ROOT);
+    }
+
+    private static Throwable translate(DataIntegrityViolationException ex, String isbn, UUID authorId) {
+        if (Constraints.violated(ex, Book.ISBN_UNIQUE)) {
+            return new DuplicateResourceException("A book with ISBN " + isbn + " already exists.");
+        }
+        if (Constraints.violated(ex, Book.AUTHOR_FOREIGN_KEY)) {
+            return new ResourceNotFoundException("Author not found with id: " + authorId);
+        }
+        return ex;
+    }
+}
@@ -0,0 +1,36 @@
+package com.liras23.library.change;
+
+import java.util.UUID;
+
+/**
+ * A write to a book or author, published by the services as a Spring application event from inside the
+ * write transaction. Listeners such as {@link com.liras23.library.change.service.ChangeFeed} only see it once
+ * the transaction commits.
+ *
+ * @param resource The kind of resource written.
+ * @param type     What happened to it.
+ * @param id       The ID of the resource.
+ * @param data     Its representation after the write, as the API returns it; {@code null} for deletions.
+ */
+public record ResourceChange(Resource resource, Type type, UUID id, Object data) {
+
+    public enum Resource {
+        BOOK, AUTHOR
+    }
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ResourceChange created(Resource resource, UUID id, Object data) {
+        return new ResourceChange(resource, Type.CREATED, id, data);
+    }
+
+    public static ResourceChange updated(Resource resource, UUID id, Object data) {
+        return new ResourceChange(resource, Type.UPDATED, id, data);
+    }
+
+    public static ResourceChange deleted(Resource resource, UUID id) {
+        return new ResourceChange(resource, Type.DELETED, id, null);
+    }
+}
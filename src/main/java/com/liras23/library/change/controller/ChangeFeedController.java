@@ -0,0 +1,46 @@
+package com.liras23.library.change.controller;
+
+import com.liras23.library.change.service.ChangeFeed;
+import com.liras23.library.common.config.ReactiveConfig;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@Profile("!" + ReactiveConfig.PROFILE)
+@RequestMapping("/api/changes")
+@Tag(name = "Changes", description = "Stream of committed book and author changes")
+public class ChangeFeedController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeFeedController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @Operation(
+            summary = "Stream book and author changes",
+            description = "Server-sent events, one \"change\" event per committed create, update or delete, with the resource type, the change type, the id and, except for deletions, the new representation. Reconnect with the Last-Event-ID header (or the after parameter) to receive the changes missed in between; a \"reset\" event means they are no longer available and the catalog should be read again."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream opened", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId,
+            @RequestParam(required = false) String after) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
@@ -0,0 +1,242 @@
+package com.liras23.library.change.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liras23.library.change.ResourceChange;
+import com.liras23.library.common.config.ReactiveConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed {@link ResourceChange}s to server-sent event subscribers.
+ * <p>
+ * Every change gets the next sequence number when its transaction commits, is serialized once, and is kept in
+ * a ring of the last {@code library.changes.buffer-size} changes. Event ids are {@code <epoch>-<sequence>},
+ * the epoch being the start time of this instance, and a subscriber that reconnects with the id of the last
+ * event it saw (the {@code Last-Event-ID} header browsers send) receives what it missed. When that is no longer
+ * possible, because the changes were dropped from the ring or the id comes from another instance or an earlier
+ * run, the subscriber gets a {@value #RESET_EVENT} event first and should re-read the catalog.
+ * <p>
+ * Subscriptions are asynchronous requests, so idle subscribers hold a connection but no thread. Events are
+ * fanned out by one dispatcher thread, which hands each subscriber with pending events to a virtual thread;
+ * a subscriber is never written by two threads at once, and a slow one only delays itself.
+ */
+@Service
+@Profile("!" + ReactiveConfig.PROFILE)
+public class ChangeFeed implements InitializingBean, DisposableBean {
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESET_EVENT = "reset";
+
+    private record Entry(long sequence, String json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Entry[] ring;
+    private final long streamTimeoutMillis;
+    private final Duration heartbeat;
+    private final String epoch = Long.toString(System.currentTimeMillis());
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("change-feed").daemon().factory());
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("change-feed-sender-", 0).factory());
+    // Last assigned sequence; written under the lock, read without it.
+    private volatile long head;
+
+    public ChangeFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      @Value("${library.changes.buffer-size:10000}") int bufferSize,
+                      @Value("${library.changes.stream-timeout:30m}") Duration streamTimeout,
+                      @Value("${library.changes.heartbeat:15s}") Duration heartbeat) {
+        this.objectMapper = objectMapper;
+        this.ring = new Entry[bufferSize];
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        this.heartbeat = heartbeat;
+        Gauge.builder("library.changes.subscribers", subscribers, Set::size)
+                .description("Open change feed subscriptions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        dispatcher.scheduleWithFixedDelay(() -> dispatch(true), heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    @TransactionalEventListener
+    public void onChange(ResourceChange change) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        synchronized (this) {
+            long sequence = head + 1;
+            ring[(int) (sequence % ring.length)] = new Entry(sequence, json);
+            head = sequence;
+        }
+        signal();
+    }
+
+    /**
+     * Opens a subscription.
+     *
+     * @param lastEventId The id of the last event the subscriber received, or {@code null} to only receive
+     *                    changes committed from now on.
+     * @return The emitter to return from the controller.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Subscriber subscriber;
+        synchronized (this) {
+            long resumeAfter = lastEventId == null ? head : parseSequence(lastEventId);
+            boolean resumable = resumeAfter >= oldestSequence() - 1 && resumeAfter <= head;
+            subscriber = new Subscriber(emitter, resumable ? resumeAfter : head, !resumable);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Something is always written right away, so the response headers reach the client before the first change.
+        subscriber.schedule(true);
+        return emitter;
+    }
+
+    private void signal() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                dispatchPending.set(false);
+                dispatch(false);
+            });
+        }
+    }
+
+    private void dispatch(boolean heartbeatDue) {
+        for (Subscriber subscriber : subscribers) {
+            if (heartbeatDue || subscriber.lastSent < head) {
+                subscriber.schedule(heartbeatDue);
+            }
+        }
+    }
+
+    /**
+     * The changes after {@code sequence}, or {@code null} when some of them are no longer in the ring.
+     */
+    private synchronized List<Entry> entriesAfter(long sequence) {
+        if (sequence < oldestSequence() - 1) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>((int) (head - sequence));
+        for (long next = sequence + 1; next <= head; next++) {
+            entries.add(ring[(int) (next % ring.length)]);
+        }
+        return entries;
+    }
+
+    private long oldestSequence() {
+        return Math.max(1, head - ring.length + 1);
+    }
+
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long lastSent;
+        private boolean resetDue;
+
+        private Subscriber(SseEmitter emitter, long lastSent, boolean resetDue) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+            this.resetDue = resetDue;
+        }
+
+        /**
+         * Sends what is pending on a virtual thread, unless a send to this subscriber is already running; that
+         * one picks up the new changes before it finishes.
+         */
+        void schedule(boolean heartbeatDue) {
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(() -> send(heartbeatDue));
+            }
+        }
+
+        private void send(boolean heartbeatDue) {
+            try {
+                boolean sent = false;
+                while (resetDue || lastSent < head) {
+                    List<Entry> entries = resetDue ? null : entriesAfter(lastSent);
+                    if (entries == null) {
+                        lastSent = head;
+                        resetDue = false;
+                        emitter.send(SseEmitter.event().name(RESET_EVENT).id(eventId(lastSent)).data("{}", MediaType.APPLICATION_JSON));
+                        sent = true;
+                        continue;
+                    }
+                    for (Entry entry : entries) {
+                        emitter.send(SseEmitter.event().name(CHANGE_EVENT).id(eventId(entry.sequence()))
+                                .data(entry.json(), MediaType.APPLICATION_JSON));
+                        lastSent = entry.sequence();
+                        sent = true;
+                    }
+                }
+                if (heartbeatDue && !sent) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away or the subscription timed out; the emitter callbacks remove it.
+                subscribers.remove(this);
+            } finally {
+                sending.set(false);
+            }
+            if (lastSent < head && subscribers.contains(this)) {
+                schedule(false);
+            }
+        }
+    }
+}
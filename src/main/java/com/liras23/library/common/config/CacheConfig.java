@@ -0,0 +1,95 @@
+package com.liras23.library.common.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-process, size-bounded caches for author and book lookups, and for the pages of the book and author
+ * listings.
+ * <p>
+ * Listing pages are keyed by {@link SearchKey}, have their own, shorter-lived specification
+ * ({@code library.cache.searches.spec}) and are cleared by every write that can change them. Caching can be
+ * turned off per listing with {@code library.cache.searches.books.enabled} and
+ * {@code library.cache.searches.authors.enabled}, read by the {@code condition} of the cached methods
+ * through the {@code searchCaching} bean.
+ * <p>
+ * The caching advice is ordered just outside the transactional one, so a cache hit never opens a
+ * transaction, and the cache manager is transaction-aware, so evictions triggered inside a transaction
+ * are applied only after it commits. That keeps a reader from caching the old row between the write and
+ * its commit, but it does not close the race entirely: a reader that loaded the old row before the commit
+ * can still put it after the eviction, and it is then served until it expires. Cached entries can thus be
+ * stale for at most the {@code expireAfterWrite} of their specification ({@code library.cache.spec}).
+ * <p>
+ * With read replicas ({@link ReadReplicaConfig}), misses are loaded by read-only transactions, from a
+ * replica that may not have replayed the latest writes yet. An entry loaded after a write's eviction but
+ * before the replica caught up holds the previous version and is still served until it expires, so the
+ * staleness bound becomes the replica lag plus the {@code expireAfterWrite}: by default, the lag plus
+ * 10 minutes for lookups and plus 1 minute for listing pages ({@code library.cache.searches.spec}).
+ * Deployments that need fresher pages shorten that specification; routing the loads to the primary
+ * instead would move every miss off the replicas.
+ * Hit/miss statistics are published as {@code cache.gets} metrics.
+ * <p>
+ * Lookups are not declared with {@code @Cacheable(sync = true)}: Caffeine would then run the database
+ * call inside {@code ConcurrentHashMap.compute}, which holds a monitor and pins the carrier thread when
+ * the application runs on virtual threads.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String AUTHORS_CACHE = "authors";
+    public static final String BOOKS_CACHE = "books";
+    public static final String AUTHOR_SEARCHES_CACHE = "authorSearches";
+    public static final String BOOK_SEARCHES_CACHE = "bookSearches";
+
+    /**
+     * Whether the pages of each listing are cached.
+     */
+    public record SearchCaching(boolean books, boolean authors) {
+    }
+
+    /**
+     * The key of a cached listing page: the filter, upper-cased like the {@code upper(...) LIKE} it turns
+     * into so that searches differing only in case share an entry, and the page, size and sort.
+     */
+    public record SearchKey(String filter, int page, int size, Sort sort) {
+    }
+
+    public static SearchKey searchKey(String filter, Pageable pageable) {
+        String normalizedFilter = StringUtils.hasText(filter) ? filter.toUpperCase(Locale.ROOT) : "";
+        return pageable.isPaged()
+                ? new SearchKey(normalizedFilter, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort())
+                : new SearchKey(normalizedFilter, 0, -1, pageable.getSort());
+    }
+
+    @Bean
+    public CacheManager cacheManager(@Value("${library.cache.spec}") String cacheSpec,
+                                     @Value("${library.cache.searches.spec}") String searchCacheSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(cacheSpec);
+        cacheManager.setCacheNames(List.of(AUTHORS_CACHE, BOOKS_CACHE));
+        cacheManager.registerCustomCache(AUTHOR_SEARCHES_CACHE, Caffeine.from(searchCacheSpec).build());
+        cacheManager.registerCustomCache(BOOK_SEARCHES_CACHE, Caffeine.from(searchCacheSpec).build());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    @Bean
+    public SearchCaching searchCaching(@Value("${library.cache.searches.books.enabled:true}") boolean books,
+                                       @Value("${library.cache.searches.authors.enabled:true}") boolean authors) {
+        return new SearchCaching(books, authors);
+    }
+}
@@ -0,0 +1,52 @@
+package com.liras23.library.common.config;
+
+import com.liras23.library.common.web.AdaptiveConcurrencyLimit;
+import com.liras23.library.common.web.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConcurrencyLimitInterceptor} in front of the book and author endpoints, unless
+ * {@code library.concurrency-limit.enabled} is {@code false}.
+ * <p>
+ * The catalog export and the bulk import are left out: they run for as long as their data takes, so their
+ * latency says nothing about overload and would only drag the write and search limits down.
+ */
+@Configuration
+@Profile("!" + ReactiveConfig.PROFILE)
+@ConditionalOnProperty(prefix = "library.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    public ConcurrencyLimitConfig(ConcurrencyLimitInterceptor concurrencyLimitInterceptor) {
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+    }
+
+    @Bean
+    public static ConcurrencyLimitInterceptor concurrencyLimitInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${library.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${library.concurrency-limit.min-limit:5}") int minLimit,
+            @Value("${library.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${library.concurrency-limit.tolerance:1.5}") double tolerance,
+            @Value("${library.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        return new ConcurrencyLimitInterceptor(() -> new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance),
+                retryAfter, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor)
+                .addPathPatterns("/api/books/**", "/api/authors/**")
+                .excludePathPatterns("/api/books/export", "/api/books/batch");
+    }
+}
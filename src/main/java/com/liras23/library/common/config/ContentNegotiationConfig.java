@@ -0,0 +1,86 @@
+package com.liras23.library.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * Binary encodings of the JSON API, chosen by the {@code Accept} header: CBOR ({@value #CBOR_VALUE}) and
+ * Smile ({@value #SMILE_VALUE}). They encode the same documents as JSON, with the same field names, so every
+ * response, page wrapper and error body included, is available in all three; only ids are written as their 16
+ * bytes instead of the 36-character text, and are read in either form. JSON stays the default when the client
+ * does not ask for anything else. Request bodies are accepted in the same formats.
+ * <p>
+ * The mappers are built from Spring Boot's {@link Jackson2ObjectMapperBuilder}, so {@code spring.jackson.*}
+ * applies to them as it does to JSON; Spring MVC would otherwise register both formats with mappers that ignore
+ * it. WebFlux registers Smile on its own and only needs CBOR. Compression of large bodies is configured with
+ * {@code server.compression.*}.
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    public static final String CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Spring's CBOR encoder only implements {@code encodeValue}, but WebFlux writes every response body through
+     * {@code encode}, even a single value. This one encodes each element; a stream becomes a CBOR sequence.
+     */
+    static final class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+        }
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * WebFlux has no CBOR codec by default; used by the {@value ReactiveConfig#PROFILE} profile and by
+     * {@code WebClient}s. Custom codecs are tried before the default ones, so JSON is registered again ahead
+     * of CBOR to stay the format of requests and responses that do not name one.
+     */
+    @Bean
+    public CodecCustomizer cborCodecCustomizer(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new Jackson2JsonDecoder(objectMapper));
+            configurer.customCodecs().register(new CborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+}
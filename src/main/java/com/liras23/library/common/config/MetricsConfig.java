@@ -0,0 +1,24 @@
+package com.liras23.library.common.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on Spring beans.
+ * <p>
+ * Services are timed under {@value #SERVICE_TIMER} with {@code class} and {@code method} tags. HTTP routes,
+ * the Hikari pool and Hibernate statistics are instrumented by Spring Boot; all of them are scraped from
+ * {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "library.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,111 @@
+package com.liras23.library.common.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+import java.time.Duration;
+
+/**
+ * The non-blocking variant of the API, active with the {@value #PROFILE} profile.
+ * <p>
+ * The profile runs the application on WebFlux and Netty instead of Tomcat, and the reactive controllers
+ * read and write through R2DBC on {@code library.r2dbc.url}. Credentials default to the JDBC data source's.
+ * The JDBC data source stays, with a small pool, because the Flyway migrations and the index check run on
+ * it at startup.
+ * <p>
+ * The R2DBC pool is deliberately not a {@code ConnectionFactory} bean: Spring Boot backs off its JDBC data
+ * source when it finds one. For the same reason Boot's own R2DBC auto-configuration is excluded in
+ * {@code application.properties}. The transaction manager is not a bean either, so
+ * {@code @Transactional} keeps resolving to the JPA one.
+ */
+@Configuration
+@Profile(ReactiveConfig.PROFILE)
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    public static final String PROFILE = "reactive";
+
+    /**
+     * Owns the R2DBC connection pool and closes it with the context.
+     */
+    public static final class ReactiveConnections implements DisposableBean {
+
+        private final ConnectionPool pool;
+
+        ReactiveConnections(ConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void destroy() {
+            pool.dispose();
+        }
+    }
+
+    /**
+     * Tomcat is on the classpath for the servlet stack, and Spring Boot prefers it over Netty for reactive
+     * applications too.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveConnections reactiveConnections(DataSourceProperties dataSourceProperties,
+                                                   @Value("${library.r2dbc.url}") String url,
+                                                   @Value("${library.r2dbc.username:}") String username,
+                                                   @Value("${library.r2dbc.password:}") String password,
+                                                   @Value("${library.r2dbc.pool.max-size:20}") int maxSize,
+                                                   @Value("${library.r2dbc.pool.max-acquire-time:5s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER,
+                        StringUtils.hasText(username) ? username : dataSourceProperties.determineUsername())
+                .option(ConnectionFactoryOptions.PASSWORD,
+                        StringUtils.hasText(username) ? password : dataSourceProperties.determinePassword())
+                .build();
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("r2dbc")
+                .initialSize(Math.min(10, maxSize))
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        return new ReactiveConnections(pool);
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ReactiveConnections connections) {
+        return DatabaseClient.create(connections.pool);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveConnections connections) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connections.pool));
+    }
+
+    /**
+     * Binds {@code page}, {@code size} and {@code sort} like Spring Data's MVC support does for the
+     * servlet controllers.
+     */
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver(),
+                new ReactiveSortHandlerMethodArgumentResolver());
+    }
+}
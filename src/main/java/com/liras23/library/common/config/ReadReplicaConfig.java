@@ -0,0 +1,100 @@
+package com.liras23.library.common.config;
+
+import com.liras23.library.common.persistence.ReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to read replicas, when {@code library.datasource.replicas.urls} is set.
+ * <p>
+ * The application data source is a {@link LazyConnectionDataSourceProxy} over the primary pool: it only
+ * fetches a physical connection on the first statement, by which time the transaction manager has
+ * marked the connection read-only for {@code @Transactional(readOnly = true)} methods. Those get a
+ * connection from {@link ReplicaDataSource}; everything else, including every write, stays on the
+ * primary.
+ * <p>
+ * Every replica has its own Hikari pool, configured by the same {@code spring.datasource.hikari.*}
+ * properties as the primary and named {@code replica-1}, {@code replica-2}, ... in the
+ * {@code hikaricp.*} metrics. The pools are not beans of their own, so that the routing data source stays
+ * the only {@link DataSource}; this configuration closes them when the context shuts down. Replicas may lag
+ * behind the primary, so a read right after a write can return the previous version; conditional updates
+ * are checked inside the write transaction, on the primary, so a stale {@code ETag} is still rejected.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.datasource.replicas", name = "urls")
+public class ReadReplicaConfig implements DisposableBean {
+
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${library.datasource.replicas.urls}") List<String> urls,
+                                 @Value("${library.datasource.replicas.username:}") String username,
+                                 @Value("${library.datasource.replicas.password:}") String password,
+                                 @Value("${library.datasource.replicas.retry-after:30s}") Duration retryAfter) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(properties, binder, "primary", properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword());
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = pool(properties, binder, "replica-" + (replicas.size() + 1), url.trim(),
+                    StringUtils.hasText(username) ? username : properties.determineUsername(),
+                    StringUtils.hasText(username) ? password : properties.determinePassword());
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaDataSource(primary, replicas, retryAfter));
+        return dataSource;
+    }
+
+    /**
+     * Closes the primary and replica pools. The data source bean is created by this configuration, so it and
+     * its dependents are destroyed first.
+     */
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    List<HikariDataSource> getPools() {
+        return List.copyOf(pools);
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, Binder binder, String name,
+                                         String url, String username, String password) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pools.add(pool);
+        return pool;
+    }
+}
@@ -0,0 +1,16 @@
+package com.liras23.library.common.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of a change listing: a resource created or changed at {@code changedAt}, with its current
+ * representation in {@code data}, or, when {@code deleted}, a tombstone without data.
+ */
+public record ChangeDTO<T>(
+        UUID id,
+        Instant changedAt,
+        boolean deleted,
+        T data
+) {
+}
@@ -0,0 +1,15 @@
+package com.liras23.library.common.dto;
+
+import java.util.List;
+
+/**
+ * A page of changes in change order. Unlike {@link CursorPageResponseDTO}, {@code nextCursor} is set on the
+ * last page too: it is where the next sync starts.
+ */
+public record ChangesResponseDTO<T>(
+        List<ChangeDTO<T>> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {
+}
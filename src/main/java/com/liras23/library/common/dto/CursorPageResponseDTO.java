@@ -0,0 +1,11 @@
+package com.liras23.library.common.dto;
+
+import java.util.List;
+
+public record CursorPageResponseDTO<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {
+}
@@ -0,0 +1,17 @@
+package com.liras23.library.common.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+public record LookupRequestDTO(
+        @NotNull(message = "Ids cannot be null.")
+        List<@NotNull(message = "Ids cannot contain null.") UUID> ids
+) {
+
+    /**
+     * The most ids a single lookup may ask for, so one request cannot turn into an unbounded {@code IN} list.
+     */
+    public static final int MAX_IDS = 100;
+}
@@ -0,0 +1,44 @@
+package com.liras23.library.common.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The result of looking up a list of ids at once: the resources that exist, in the order their ids were
+ * requested, and the ids that do not exist.
+ */
+public record LookupResponseDTO<T>(
+        List<T> content,
+        List<UUID> missing
+) {
+
+    /**
+     * Puts the resources found by a lookup back in request order. Ids requested more than once are
+     * answered once, at their first position.
+     *
+     * @param ids   The requested ids, in request order.
+     * @param found The resources found, in any order.
+     * @param id    Extracts the id of a resource.
+     * @return The lookup result.
+     */
+    public static <T> LookupResponseDTO<T> of(Collection<UUID> ids, Collection<T> found, Function<T, UUID> id) {
+        Map<UUID, T> byId = found.stream().collect(Collectors.toMap(id, Function.identity()));
+        List<T> content = new ArrayList<>(byId.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID requestedId : new LinkedHashSet<>(ids)) {
+            T resource = byId.get(requestedId);
+            if (resource != null) {
+                content.add(resource);
+            } else {
+                missing.add(requestedId);
+            }
+        }
+        return new LookupResponseDTO<>(content, missing);
+    }
+}
@@ -0,0 +1,25 @@
+package com.liras23.library.common.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * A page of results without an exact total: whether a next page exists is known from one extra row, so no
+ * {@code COUNT(*)} is run. {@code estimatedTotal} is a rough total from the database statistics, only for
+ * unfiltered listings, and {@code null} when it is not available.
+ */
+public record SliceResponseDTO<T>(
+        List<T> content,
+        int page,
+        int size,
+        boolean hasNext,
+        Long estimatedTotal
+) {
+
+    public static <T> SliceResponseDTO<T> of(Slice<T> slice, OptionalLong estimatedTotal) {
+        return new SliceResponseDTO<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+                estimatedTotal.isPresent() ? estimatedTotal.getAsLong() : null);
+    }
+}
@@ -0,0 +1,68 @@
+package com.liras23.library.common.pagination;
+
+import com.liras23.library.common.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A position in a change listing, which is ordered by change time and then id: the time and id of the last
+ * change already seen. Handed to clients as an opaque, URL-safe token.
+ *
+ * @param changedAt The change time of the last change seen.
+ * @param id        Its id.
+ */
+public record ChangeCursor(Instant changedAt, UUID id) {
+
+    /**
+     * The id order of PostgreSQL and H2, which compare UUIDs as unsigned bytes; {@link UUID#compareTo}
+     * compares signed longs.
+     */
+    public static final Comparator<UUID> ID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static final UUID LOWEST_ID = new UUID(0, 0);
+    private static final int LENGTH = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * The position just before every change made at or after {@code time}.
+     */
+    public static ChangeCursor since(Instant time) {
+        return new ChangeCursor(time, LOWEST_ID);
+    }
+
+    /**
+     * Decodes a token returned as {@code nextCursor}.
+     *
+     * @throws InvalidCursorException if the token is malformed.
+     */
+    public static ChangeCursor decode(String cursor) {
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != LENGTH) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Instant changedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return new ChangeCursor(changedAt, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH);
+        buffer.putLong(changedAt.getEpochSecond());
+        buffer.putInt(changedAt.getNano());
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return ENCODER.encodeToString(buffer.array());
+    }
+}
@@ -0,0 +1,89 @@
+package com.liras23.library.common.pagination;
+
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.exception.InvalidCursorException;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Helpers for keyset (seek) pagination ordered by id.
+ * <p>
+ * The cursor handed to clients is an opaque, URL-safe token encoding the id of the last row
+ * of the previous page, so every page is resolved with an index seek instead of an OFFSET scan.
+ */
+public final class CursorPagination {
+
+    public static final int MAX_SIZE = 1000;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorPagination() {
+    }
+
+    /**
+     * Decodes a cursor token into the id the next page should start after.
+     *
+     * @param cursor The token returned as {@code nextCursor}, or blank for the first page.
+     * @return The id to seek after, or {@code null} when starting from the beginning.
+     * @throws InvalidCursorException if the token is malformed.
+     */
+    public static UUID decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != 16) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static String encode(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    /**
+     * Clamps the requested page size to {@code [1, MAX_SIZE]}.
+     */
+    public static int normalizeSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Returns the fetch limit for a page: one extra row is read to know whether another page exists.
+     */
+    public static Limit limitFor(int size) {
+        return Limit.of(size + 1);
+    }
+
+    /**
+     * Builds the response for a page fetched with {@link #limitFor(int)}.
+     *
+     * @param rows   The rows fetched, possibly including the look-ahead row.
+     * @param size   The normalized page size.
+     * @param idOf   Extracts the seek key of a row.
+     * @param mapper Maps a row to its response representation.
+     */
+    public static <E, T> CursorPageResponseDTO<T> toPage(List<E> rows, int size,
+                                                         Function<E, UUID> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encode(idOf.apply(content.get(content.size() - 1))) : null;
+        return new CursorPageResponseDTO<>(content.stream().map(mapper).toList(), size, nextCursor, hasNext);
+    }
+}
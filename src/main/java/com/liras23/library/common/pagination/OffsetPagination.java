@@ -0,0 +1,35 @@
+package com.liras23.library.common.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Helpers for {@code LIMIT}/{@code OFFSET} pagination.
+ */
+public final class OffsetPagination {
+
+    private static final String ID = "id";
+
+    private OffsetPagination() {
+    }
+
+    /**
+     * Appends {@code id} to the sort of a page, unless it is already sorted by it, so that consecutive pages
+     * neither repeat nor skip rows: without a total order the database may return rows that tie, or every
+     * row when unsorted, in a different order for each query.
+     *
+     * @param pageable The requested page.
+     * @return The same page, sorted by the requested properties and then by id.
+     */
+    public static Pageable orderedById(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor(ID) != null) {
+            return pageable;
+        }
+        Sort stable = sort.and(Sort.by(ID));
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), stable)
+                : Pageable.unpaged(stable);
+    }
+}
@@ -0,0 +1,37 @@
+package com.liras23.library.common.pagination;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Reactive counterpart of Spring Data's {@code PageableExecutionUtils}.
+ */
+public final class ReactivePaging {
+
+    private ReactivePaging() {
+    }
+
+    /**
+     * Assembles a page, running the count query only when the total cannot be told from the content:
+     * a first page that is not full, or a last page that is not empty, already gives it.
+     *
+     * @param content The rows of the page.
+     * @param pageable The requested page.
+     * @param total    The count query, subscribed only when needed.
+     */
+    public static <T> Mono<Page<T>> page(Mono<List<T>> content, Pageable pageable, Mono<Long> total) {
+        return content.flatMap(rows -> {
+            if (pageable.isUnpaged() || pageable.getOffset() == 0 && pageable.getPageSize() > rows.size()) {
+                return Mono.<Page<T>>just(new PageImpl<>(rows, pageable, rows.size()));
+            }
+            if (!rows.isEmpty() && pageable.getPageSize() > rows.size()) {
+                return Mono.<Page<T>>just(new PageImpl<>(rows, pageable, pageable.getOffset() + rows.size()));
+            }
+            return total.<Page<T>>map(count -> new PageImpl<>(rows, pageable, count));
+        });
+    }
+}
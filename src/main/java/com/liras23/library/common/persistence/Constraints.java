@@ -0,0 +1,38 @@
+package com.liras23.library.common.persistence;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells which named database constraint a write violated, so services can let the database enforce
+ * uniqueness and references instead of checking them with a read first.
+ */
+public final class Constraints {
+
+    private Constraints() {
+    }
+
+    /**
+     * Checks whether {@code ex} was caused by the constraint called {@code name}. Databases report the
+     * name differently (H2 qualifies it with the schema and appends the columns, and Hibernate's H2
+     * extractor cuts the first letter of foreign key names), so it is matched ignoring case anywhere in
+     * the extracted name or, failing that, in the driver's message.
+     *
+     * @param ex   The exception thrown by the write.
+     * @param name The name the constraint was declared with.
+     * @return {@code true} if the violated constraint is {@code name}.
+     */
+    public static boolean violated(DataIntegrityViolationException ex, String name) {
+        String needle = name.toLowerCase(Locale.ROOT);
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(needle)) {
+                return true;
+            }
+        }
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(needle);
+    }
+}
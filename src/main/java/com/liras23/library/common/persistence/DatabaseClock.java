@@ -0,0 +1,32 @@
+package com.liras23.library.common.persistence;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+/**
+ * The time according to the database, the clock that stamps every change time (see the migration
+ * {@code V6__stamp_changes_with_database_clock}), so that comparing against change times does not depend on
+ * the clocks of the application servers.
+ * <p>
+ * The time is read through the current transaction's connection: inside a read-only transaction, that is
+ * the clock of the replica serving it, which is only as close to the primary's as the two are synchronized.
+ */
+@Component
+public class DatabaseClock {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseClock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return The start time of the current transaction on the database, or the current time outside one.
+     */
+    public Instant now() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP", OffsetDateTime.class).toInstant();
+    }
+}
@@ -0,0 +1,211 @@
+package com.liras23.library.common.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks at startup that the queries behind the repository methods are served by indexes, so a
+ * migration that drops or changes an index cannot silently turn a lookup into a sequential scan.
+ * <p>
+ * {@link #REQUIRED_INDEXES} names, for every repository method, the index its {@code WHERE} or
+ * {@code ORDER BY} needs: the table, the index type and the leading key, which may be an expression
+ * such as {@code upper(isbn)}. The query methods declared by the Spring Data repository interfaces are
+ * enumerated by reflection, so a new finder that is neither mapped there nor listed in {@link #FULL_SCANS}
+ * is reported as unmapped instead of going unchecked. The indexes present are read from the PostgreSQL
+ * catalog. The catalog is used rather than {@code EXPLAIN}, whose plans on small or freshly migrated tables
+ * say more about the table size than about the indexes. Only the unmapped methods are reported on other
+ * databases (H2 in tests).
+ * <p>
+ * {@code library.schema.index-check} chooses what happens to unmapped and uncovered methods: {@code warn}
+ * (the default) logs them, {@code fail} also aborts startup, {@code off} skips the check.
+ */
+@Component
+public class IndexCoverageVerifier implements ApplicationRunner {
+
+    public enum Mode {
+        OFF, WARN, FAIL
+    }
+
+    /**
+     * An index on {@code table} of type {@code accessMethod} (and operator class, when it matters)
+     * whose first key is {@code leadingKey}.
+     */
+    record Index(String table, String accessMethod, String operatorClass, String leadingKey) {
+
+        static Index btree(String table, String leadingKey) {
+            return new Index(table, "btree", null, leadingKey);
+        }
+
+        /** The {@code pg_trgm} index that answers {@code upper(column) LIKE upper('%term%')}. */
+        static Index trigram(String table, String column) {
+            return new Index(table, "gin", "gin_trgm_ops", "upper(" + column + ")");
+        }
+
+        boolean satisfies(Index required) {
+            return table.equals(required.table)
+                    && accessMethod.equals(required.accessMethod)
+                    && (required.operatorClass == null || required.operatorClass.equals(operatorClass))
+                    && normalize(leadingKey).equals(normalize(required.leadingKey));
+        }
+
+        private static String normalize(String key) {
+            return key.toLowerCase(Locale.ROOT).replace("::text", "").replace(" ", "");
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(IndexCoverageVerifier.class);
+
+    private static final String INDEXES_QUERY = """
+            SELECT t.relname, am.amname, oc.opcname, pg_get_indexdef(i.indexrelid, 1, true)
+            FROM pg_index i
+            JOIN pg_class t ON t.oid = i.indrelid
+            JOIN pg_class ix ON ix.oid = i.indexrelid
+            JOIN pg_am am ON am.oid = ix.relam
+            JOIN pg_opclass oc ON oc.oid = i.indclass[0]
+            WHERE t.relnamespace = to_regnamespace(current_schema()) AND i.indisvalid
+            """;
+
+    /**
+     * The index every repository method relies on, keyed by {@code Repository.method}.
+     */
+    static final Map<String, Index> REQUIRED_INDEXES = new LinkedHashMap<>();
+
+    /**
+     * Repository methods that read whole tables by design, so no index can or should cover them.
+     */
+    static final Set<String> FULL_SCANS = Set.of("BookRepository.streamAll");
+
+    static {
+        Index bookId = Index.btree("books", "id");
+        Index bookTitle = Index.trigram("books", "title");
+        Index bookIsbn = Index.btree("books", "upper(isbn)");
+        Index authorId = Index.btree("authors", "id");
+        Index authorName = Index.trigram("authors", "name");
+
+        // Unsorted pages need no index; ?sort=title does.
+        REQUIRED_INDEXES.put("BookRepository.findAll", Index.btree("books", "title"));
+        REQUIRED_INDEXES.put("BookRepository.findSliceBy", Index.btree("books", "title"));
+        REQUIRED_INDEXES.put("BookRepository.findById", bookId);
+        REQUIRED_INDEXES.put("BookRepository.findAllById", bookId);
+        REQUIRED_INDEXES.put("BookRepository.findVersionsById", bookId);
+        REQUIRED_INDEXES.put("BookRepository.findByTitleContainingIgnoreCase", bookTitle);
+        REQUIRED_INDEXES.put("BookRepository.findSliceByTitleContainingIgnoreCase", bookTitle);
+        REQUIRED_INDEXES.put("BookRepository.findByAuthorId", Index.btree("books", "author_id"));
+        REQUIRED_INDEXES.put("BookRepository.findAuthorIdById", bookId);
+        REQUIRED_INDEXES.put("BookRepository.removeById", bookId);
+        REQUIRED_INDEXES.put("BookRepository.findExistingIsbns", bookIsbn);
+        REQUIRED_INDEXES.put("BookRepository.findByOrderByIdAsc", bookId);
+        REQUIRED_INDEXES.put("BookRepository.findByIdGreaterThanOrderByIdAsc", bookId);
+        REQUIRED_INDEXES.put("BookRepository.findByTitleContainingIgnoreCaseOrderByIdAsc", bookTitle);
+        REQUIRED_INDEXES.put("BookRepository.findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc", bookTitle);
+        REQUIRED_INDEXES.put("BookRepository.touchByAuthorId", Index.btree("books", "author_id"));
+        REQUIRED_INDEXES.put("BookRepository.findChangedAfter", Index.btree("books", "updated_at"));
+        REQUIRED_INDEXES.put("BookTombstoneRepository.insert", Index.btree("book_tombstones", "id"));
+        REQUIRED_INDEXES.put("BookTombstoneRepository.findDeletedAfter", Index.btree("book_tombstones", "deleted_at"));
+        REQUIRED_INDEXES.put("AuthorRepository.findAll", Index.btree("authors", "name"));
+        REQUIRED_INDEXES.put("AuthorRepository.findSliceBy", Index.btree("authors", "name"));
+        REQUIRED_INDEXES.put("AuthorRepository.findByNameContainingIgnoreCase", authorName);
+        REQUIRED_INDEXES.put("AuthorRepository.findSliceByNameContainingIgnoreCase", authorName);
+        REQUIRED_INDEXES.put("AuthorRepository.findByOrderByIdAsc", authorId);
+        REQUIRED_INDEXES.put("AuthorRepository.findByIdGreaterThanOrderByIdAsc", authorId);
+        REQUIRED_INDEXES.put("AuthorRepository.findByNameContainingIgnoreCaseOrderByIdAsc", authorName);
+        REQUIRED_INDEXES.put("AuthorRepository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc", authorName);
+        REQUIRED_INDEXES.put("AuthorRepository.findVersionById", authorId);
+        REQUIRED_INDEXES.put("AuthorRepository.adjustBookCount", authorId);
+        REQUIRED_INDEXES.put("AuthorRepository.removeById", authorId);
+        // Not a repository method: the foreign key check PostgreSQL runs on books when an author is deleted.
+        REQUIRED_INDEXES.put("fk_books_author_id", Index.btree("books", "author_id"));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ListableBeanFactory beanFactory;
+    private final Mode mode;
+
+    public IndexCoverageVerifier(JdbcTemplate jdbcTemplate, ListableBeanFactory beanFactory,
+                                 @Value("${library.schema.index-check:warn}") Mode mode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.beanFactory = beanFactory;
+        this.mode = mode;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        List<String> unmapped = findUnmapped(repositoryInterfaces());
+        unmapped.forEach(method -> log.warn("No index is declared for {}: map it in REQUIRED_INDEXES or list it in FULL_SCANS", method));
+        if (mode == Mode.FAIL && !unmapped.isEmpty()) {
+            throw new IllegalStateException(unmapped.size() + " repository query methods have no declared index: " + unmapped);
+        }
+
+        String databaseProduct = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(databaseProduct)) {
+            log.info("Index coverage is only checked on PostgreSQL; skipping it on {}.", databaseProduct);
+            return;
+        }
+
+        List<Index> indexes = jdbcTemplate.query(INDEXES_QUERY, (row, rowNum) ->
+                new Index(row.getString(1), row.getString(2), row.getString(3), row.getString(4)));
+        List<String> uncovered = findUncovered(indexes);
+        if (uncovered.isEmpty()) {
+            log.info("All {} repository queries are served by indexes.", REQUIRED_INDEXES.size());
+            return;
+        }
+        uncovered.forEach(method -> log.warn("No index serves {}: expected {}", method, REQUIRED_INDEXES.get(method)));
+        if (mode == Mode.FAIL) {
+            throw new IllegalStateException(uncovered.size() + " repository queries are not served by an index: " + uncovered);
+        }
+    }
+
+    /**
+     * @return The query methods, as {@code Repository.method}, that are declared by the given repository
+     * interfaces but neither mapped in {@link #REQUIRED_INDEXES} nor listed in {@link #FULL_SCANS}.
+     */
+    static List<String> findUnmapped(Collection<Class<?>> repositoryInterfaces) {
+        return repositoryInterfaces.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> Modifier.isAbstract(method.getModifiers()) && !method.isSynthetic())
+                        .map(method -> repository.getSimpleName() + "." + method.getName()))
+                .distinct()
+                .filter(method -> !REQUIRED_INDEXES.containsKey(method) && !FULL_SCANS.contains(method))
+                .sorted()
+                .toList();
+    }
+
+    private List<Class<?>> repositoryInterfaces() {
+        Repositories repositories = new Repositories(beanFactory);
+        List<Class<?>> interfaces = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            repositories.getRepositoryInformationFor(domainType)
+                    .ifPresent(information -> interfaces.add(information.getRepositoryInterface()));
+        }
+        return interfaces;
+    }
+
+    static List<String> findUncovered(Collection<Index> indexes) {
+        return REQUIRED_INDEXES.entrySet().stream()
+                .filter(required -> indexes.stream().noneMatch(index -> index.satisfies(required.getValue())))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
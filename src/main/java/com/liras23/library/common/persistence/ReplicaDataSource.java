@@ -0,0 +1,79 @@
+package com.liras23.library.common.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hands out connections to read replicas, round-robin.
+ * <p>
+ * A replica that fails to provide a connection is skipped for {@code retryAfter} and the next one is
+ * tried; when every replica is down, the connection comes from the primary, so reads degrade to the
+ * primary instead of failing.
+ */
+public class ReplicaDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long retryAfterMillis;
+    private final AtomicLongArray downUntil;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryAfterMillis = retryAfter.toMillis();
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    /**
+     * Connects as another user, following the same rotation and fallback. Data sources that only support
+     * their configured credentials, such as Hikari pools, throw {@link SQLFeatureNotSupportedException},
+     * which is passed on without marking the replica as down.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = (start + i) % replicas.size();
+            if (System.currentTimeMillis() < downUntil.get(replica)) {
+                continue;
+            }
+            try {
+                return connector.connect(replicas.get(replica));
+            } catch (SQLFeatureNotSupportedException ex) {
+                throw ex;
+            } catch (SQLException ex) {
+                downUntil.set(replica, System.currentTimeMillis() + retryAfterMillis);
+                log.warn("Read replica {} is unavailable, skipping it for {} ms: {}",
+                        replica + 1, retryAfterMillis, ex.getMessage());
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,80 @@
+package com.liras23.library.common.persistence;
+
+import org.springframework.data.util.TypeInformation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds the parts of hand-written SQL that Spring Data derives for the JPA repositories, so the reactive
+ * repositories page, sort and search the same way.
+ */
+public final class SqlFragments {
+
+    /** The escape character of {@link #containing(String)}, the one Spring Data uses for derived queries. */
+    public static final String LIKE_ESCAPE = "ESCAPE '\\'";
+
+    private SqlFragments() {
+    }
+
+    /**
+     * Turns a search term into the pattern of a {@code Containing} query, escaping the wildcards it contains.
+     */
+    public static String containing(String term) {
+        return "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Builds a {@code WHERE} clause joining the given conditions with {@code AND}, skipping {@code null}s.
+     *
+     * @return The clause with a leading space, or an empty string when there are no conditions.
+     */
+    public static String where(String... conditions) {
+        return Stream.of(conditions)
+                .filter(Objects::nonNull)
+                .collect(Collectors.collectingAndThen(Collectors.joining(" AND "),
+                        joined -> joined.isEmpty() ? "" : " WHERE " + joined));
+    }
+
+    /**
+     * Builds the {@code ORDER BY} clause of {@code sort}.
+     *
+     * @param sort    The requested sort.
+     * @param columns The column of every sortable property.
+     * @param type    The entity the properties belong to, for the error message.
+     * @return The clause with a leading space, or an empty string when unsorted.
+     * @throws PropertyReferenceException for a property that is not sortable, like Spring Data does.
+     */
+    public static String orderBy(Sort sort, Map<String, String> columns, Class<?> type) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream()
+                .map(order -> {
+                    String column = columns.get(order.getProperty());
+                    if (column == null) {
+                        throw new PropertyReferenceException(order.getProperty(), TypeInformation.of(type), List.of());
+                    }
+                    return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+    /**
+     * Builds the {@code LIMIT}/{@code OFFSET} clause of a page.
+     *
+     * @return The clause with a leading space, or an empty string when unpaged.
+     */
+    public static String limit(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return "";
+        }
+        return " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+    }
+}
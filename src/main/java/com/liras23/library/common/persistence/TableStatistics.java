@@ -0,0 +1,75 @@
+package com.liras23.library.common.persistence;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * Approximate row counts read from the database statistics instead of counting the rows.
+ * <p>
+ * On PostgreSQL the estimate is the one the planner uses: the rows per page measured by the last
+ * {@code ANALYZE} (or autovacuum) scaled to the current size of the table, so it follows inserts and deletes
+ * between analyses. It is unavailable until the table has been analyzed once. On H2 (tests) it is H2's own
+ * row count estimate.
+ */
+@Component
+public class TableStatistics {
+
+    private static final String POSTGRESQL_ESTIMATE = """
+            SELECT CASE
+                       WHEN c.reltuples < 0 THEN NULL
+                       WHEN c.relpages = 0 THEN c.reltuples::bigint
+                       ELSE (c.reltuples / c.relpages
+                             * (pg_relation_size(c.oid) / current_setting('block_size')::int))::bigint
+                   END
+            FROM pg_class c
+            WHERE c.oid = to_regclass(?)
+            """;
+
+    private static final String H2_ESTIMATE = """
+            SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES
+            WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = UPPER(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String estimateQuery;
+
+    public TableStatistics(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Estimates the number of rows of a table in the current schema.
+     *
+     * @param table The table name.
+     * @return The estimate, or empty if the database has none yet or is not supported.
+     */
+    public OptionalLong estimateRowCount(String table) {
+        String query = estimateQuery();
+        if (query == null) {
+            return OptionalLong.empty();
+        }
+        List<Long> estimates = jdbcTemplate.query(query, (row, rowNum) -> row.getObject(1, Long.class), table);
+        return estimates.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .findFirst();
+    }
+
+    private String estimateQuery() {
+        if (estimateQuery == null) {
+            String databaseProduct = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            estimateQuery = switch (Objects.requireNonNull(databaseProduct)) {
+                case "PostgreSQL" -> POSTGRESQL_ESTIMATE;
+                case "H2" -> H2_ESTIMATE;
+                default -> "";
+            };
+        }
+        return estimateQuery.isEmpty() ? null : estimateQuery;
+    }
+}
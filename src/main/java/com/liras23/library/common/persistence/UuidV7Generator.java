@@ -0,0 +1,57 @@
+package com.liras23.library.common.persistence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs in the version 7 layout of RFC 9562.
+ * <p>
+ * The first 48 bits are the Unix time in milliseconds and the 12 bits after the version are a counter
+ * (the RFC's "method 3"), so ids generated by this JVM are strictly increasing: when the counter runs out
+ * within a millisecond the timestamp is borrowed from the next one. The remaining 62 bits are random. Both
+ * PostgreSQL and H2 compare {@code uuid} values byte by byte, so ids sort in creation order and inserts
+ * always go to the rightmost leaf of the primary key index.
+ * <p>
+ * The random bits come from {@link ThreadLocalRandom}: ids are identifiers, not secrets, and anyone can
+ * read the creation time from them.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 7L << 12;
+    private static final long VARIANT = 0b10L << 62;
+    private static final long RANDOM_MASK = -1L >>> 2;
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    /**
+     * @return A new version 7 UUID, greater than every one previously returned by this JVM.
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long timeAndCounter = LAST.updateAndGet(last -> Math.max(now, last + 1));
+        long mostSignificantBits = (timeAndCounter >>> COUNTER_BITS) << 16
+                | VERSION
+                | timeAndCounter & ((1L << COUNTER_BITS) - 1);
+        long leastSignificantBits = VARIANT | ThreadLocalRandom.current().nextLong() & RANDOM_MASK;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,100 @@
+package com.liras23.library.common.web;
+
+/**
+ * A concurrency limit that follows the latency of the work it admits, after the gradient algorithm of Netflix's
+ * concurrency-limits library.
+ * <p>
+ * Two moving averages of the latency are kept: a short one, over about the last 10 requests, and a long one,
+ * over about the last 600, which stands for the latency of the system when it is not overloaded. While the
+ * short average stays within {@code tolerance} times the long one, every request raises the limit by a fraction
+ * of its square root, so it climbs until it reaches {@code maxLimit} or the latency starts to rise. Beyond that, the limit
+ * is scaled down by the ratio of the two, at most halved per request, and smoothed so that one slow request
+ * does not collapse it. A request that failed with a server error, such as a timeout waiting for a pooled
+ * connection, counts as the steepest rise whatever its latency.
+ * <p>
+ * The limit only grows while at least half of it is in use; an idle service keeps the limit it had.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private double limit;
+    private int inFlight;
+    private long samples;
+    private double shortLatency;
+    private double longLatency;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Admits one more request if fewer than the limit are in flight.
+     *
+     * @return Whether the request was admitted; if so, {@link #release} must be called when it completes.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Completes an admitted request and adjusts the limit to its latency.
+     *
+     * @param latencyNanos How long the request took.
+     * @param failed       Whether it failed with a server error.
+     */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        boolean busy = inFlight >= limit / 2;
+        inFlight--;
+        if (failed) {
+            limit = smooth(limit * MIN_GRADIENT);
+            return;
+        }
+
+        samples++;
+        shortLatency = average(shortLatency, latencyNanos, SHORT_WINDOW);
+        longLatency = average(longLatency, latencyNanos, Math.min(samples, LONG_WINDOW));
+        // Lets the baseline follow a lasting change in latency instead of holding the limit down forever.
+        if (longLatency > 2 * shortLatency) {
+            longLatency *= 0.95;
+        }
+        if (!busy) {
+            return;
+        }
+        // Requests faster than the clock's resolution average to zero, which is no rise; 0 / 0 would be NaN,
+        // which Math.clamp passes through and would leave the limit at 0 for good.
+        double gradient = shortLatency > 0
+                ? Math.clamp(tolerance * longLatency / shortLatency, MIN_GRADIENT, 1.0)
+                : 1.0;
+        limit = smooth(limit * gradient + Math.sqrt(limit));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private double smooth(double newLimit) {
+        return Math.clamp(limit * (1 - SMOOTHING) + newLimit * SMOOTHING, minLimit, maxLimit);
+    }
+
+    private double average(double average, double sample, double window) {
+        return samples == 1 ? sample : average + (sample - average) / window;
+    }
+}
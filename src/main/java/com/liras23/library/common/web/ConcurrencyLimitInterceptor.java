@@ -0,0 +1,121 @@
+package com.liras23.library.common.web;
+
+import com.liras23.library.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sheds load before it reaches the services: every request takes a slot from the {@link AdaptiveConcurrencyLimit}
+ * of its {@link Workload} and gives it back when it completes, and a request that finds no free slot is
+ * answered at once with a {@link ServiceUnavailableException} instead of queuing for a database connection.
+ * Reads, searches and writes have separate limits, so a burst of slow searches does not turn away lookups by
+ * id, and the reverse.
+ * <p>
+ * Metrics, tagged with the workload: {@value #METRIC_PREFIX}{@code .limit}, {@code .in-flight} and
+ * {@code .rejected}.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    public static final String METRIC_PREFIX = "library.concurrency";
+
+    private static final String SLOT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".slot";
+
+    public enum Workload {
+        /**
+         * Lookups by id, one or many.
+         */
+        READ,
+        /**
+         * Listings and searches, which read a page of rows and may count them.
+         */
+        SEARCH,
+        /**
+         * Creations, updates and deletions.
+         */
+        WRITE;
+
+        static Workload of(HttpServletRequest request) {
+            String pattern = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+            boolean safe = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+            if (pattern.endsWith("/lookup") || safe && (pattern.endsWith("/{id}") || request.getParameter("ids") != null)) {
+                return READ;
+            }
+            return safe ? SEARCH : WRITE;
+        }
+    }
+
+    private record Slot(AdaptiveConcurrencyLimit limit, long startNanos) {
+    }
+
+    private final Map<Workload, AdaptiveConcurrencyLimit> limits = new EnumMap<>(Workload.class);
+    private final Map<Workload, Counter> rejections = new EnumMap<>(Workload.class);
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitInterceptor(Supplier<AdaptiveConcurrencyLimit> limitFactory, Duration retryAfter,
+                                       MeterRegistry meterRegistry) {
+        this.retryAfter = retryAfter;
+        for (Workload workload : Workload.values()) {
+            AdaptiveConcurrencyLimit limit = limitFactory.get();
+            String tag = workload.name().toLowerCase(Locale.ROOT);
+            limits.put(workload, limit);
+            Gauge.builder(METRIC_PREFIX + ".limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Concurrent requests currently admitted")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requests in progress")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            rejections.put(workload, Counter.builder(METRIC_PREFIX + ".rejected")
+                    .description("Requests turned away because the concurrency limit was reached")
+                    .tag("workload", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch belongs to a request that already holds its slot.
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Workload workload = Workload.of(request);
+        AdaptiveConcurrencyLimit limit = limits.get(workload);
+        if (!limit.tryAcquire()) {
+            rejections.get(workload).increment();
+            throw new ServiceUnavailableException("Too many concurrent " + workload.name().toLowerCase(Locale.ROOT)
+                    + " requests. Try again later.", retryAfter);
+        }
+        request.setAttribute(SLOT_ATTRIBUTE, new Slot(limit, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(SLOT_ATTRIBUTE) instanceof Slot slot)) {
+            return;
+        }
+        request.removeAttribute(SLOT_ATTRIBUTE);
+        boolean failed = ex != null || response.getStatus() >= 500 && response.getStatus() != HttpStatus.SERVICE_UNAVAILABLE.value();
+        slot.limit().release(System.nanoTime() - slot.startNanos(), failed);
+    }
+
+    public AdaptiveConcurrencyLimit getLimit(Workload workload) {
+        return limits.get(workload);
+    }
+}
@@ -0,0 +1,72 @@
+package com.liras23.library.common.web;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Builds and compares the entity tags used for conditional requests.
+ * <p>
+ * Tags are derived from the {@code @Version} columns of the entities that make up a representation,
+ * so they can be computed from a version-only query without loading or mapping the entity.
+ */
+public final class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    private ETags() {
+    }
+
+    /**
+     * Builds a strong entity tag from the given versions, e.g. {@code "3.1"}.
+     *
+     * @param versions The versions of every entity included in the representation.
+     * @return The quoted entity tag.
+     */
+    public static String of(Long... versions) {
+        return Arrays.stream(versions)
+                .map(String::valueOf)
+                .collect(Collectors.joining(".", "\"", "\""));
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} header, which uses the weak comparison function.
+     *
+     * @param header The header value; may list several tags or be {@code *}.
+     * @param eTag   The current entity tag.
+     * @return Whether any of the listed tags matches the current one.
+     */
+    public static boolean weakMatch(String header, String eTag) {
+        return matches(header, eTag, true);
+    }
+
+    /**
+     * Evaluates an {@code If-Match} header, which uses the strong comparison function: weak tags never match.
+     *
+     * @param header The header value; may list several tags or be {@code *}.
+     * @param eTag   The current entity tag.
+     * @return Whether any of the listed tags matches the current one.
+     */
+    public static boolean strongMatch(String header, String eTag) {
+        return matches(header, eTag, false);
+    }
+
+    private static boolean matches(String header, String eTag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (ANY.equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
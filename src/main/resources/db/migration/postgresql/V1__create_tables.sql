@@ -0,0 +1,17 @@
+-- The tables as ddl-auto=update used to create them. IF NOT EXISTS lets databases created that way be
+-- brought under migration control: they are baselined at version 0 and pick up from here.
+CREATE TABLE IF NOT EXISTS authors (
+    id      uuid         NOT NULL,
+    name    varchar(255),
+    version bigint       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS books (
+    id        uuid         NOT NULL,
+    title     varchar(255) NOT NULL,
+    author_id uuid         NOT NULL,
+    isbn      varchar(255) NOT NULL,
+    version   bigint       NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,6 @@
+-- Kept up to date by the book writes through AuthorRepository.adjustBookCount; counted once here for
+-- the books that already exist.
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS book_count bigint NOT NULL DEFAULT 0;
+
+UPDATE authors a
+SET book_count = (SELECT count(*) FROM books b WHERE b.author_id = a.id);
@@ -0,0 +1,19 @@
+-- Creation and change times of books and authors, set by the database clock (the defaults and the
+-- stamp_updated_at trigger of V6). Rows that already exist count as created when this migration runs.
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS created_at timestamp(6) with time zone NOT NULL DEFAULT now();
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS updated_at timestamp(6) with time zone NOT NULL DEFAULT now();
+ALTER TABLE books ADD COLUMN IF NOT EXISTS created_at timestamp(6) with time zone NOT NULL DEFAULT now();
+ALTER TABLE books ADD COLUMN IF NOT EXISTS updated_at timestamp(6) with time zone NOT NULL DEFAULT now();
+
+-- GET /api/books/changes pages through (updated_at, id); a creation also sets updated_at, so the same
+-- index answers "created since" too.
+CREATE INDEX idx_books_updated_at ON books (updated_at, id);
+CREATE INDEX idx_authors_updated_at ON authors (updated_at, id);
+
+-- Deletions stay hard deletes; each one leaves a tombstone, paged through the same way.
+CREATE TABLE book_tombstones (
+    id         uuid                        NOT NULL,
+    deleted_at timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_book_tombstones_deleted_at ON book_tombstones (deleted_at, id);
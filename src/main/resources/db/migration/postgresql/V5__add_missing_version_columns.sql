@@ -0,0 +1,5 @@
+-- V1 creates the tables only when they are missing, and the version columns used for ETags and optimistic
+-- locking were added by ddl-auto=update later on, so a database first created before them is baselined
+-- without either column. V1 has already run on other databases and cannot change, so they are added here.
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE books ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
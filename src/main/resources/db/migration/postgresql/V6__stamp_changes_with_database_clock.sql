@@ -0,0 +1,21 @@
+-- Change times are compared against each other and against the cutoff of GET /api/books/changes, so they
+-- all come from one clock: the database's. clock_timestamp() is read when the row is written, not when the
+-- transaction started, so a long transaction cannot stamp its writes with a time from before they happened.
+ALTER TABLE authors ALTER COLUMN created_at SET DEFAULT clock_timestamp();
+ALTER TABLE authors ALTER COLUMN updated_at SET DEFAULT clock_timestamp();
+ALTER TABLE books ALTER COLUMN created_at SET DEFAULT clock_timestamp();
+ALTER TABLE books ALTER COLUMN updated_at SET DEFAULT clock_timestamp();
+ALTER TABLE book_tombstones ALTER COLUMN deleted_at SET DEFAULT clock_timestamp();
+
+-- Every update, whether issued by Hibernate or by the bulk statements, moves updated_at.
+CREATE OR REPLACE FUNCTION stamp_updated_at() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER trg_authors_stamp_updated_at BEFORE UPDATE ON authors
+    FOR EACH ROW EXECUTE FUNCTION stamp_updated_at();
+CREATE TRIGGER trg_books_stamp_updated_at BEFORE UPDATE ON books
+    FOR EACH ROW EXECUTE FUNCTION stamp_updated_at();
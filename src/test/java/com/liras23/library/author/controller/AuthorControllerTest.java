@@ -1,23 +1,31 @@
 package com.liras23.library.author.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import com.liras23.library.author.Author;
 import com.liras23.library.author.AuthorRepository;
 import com.liras23.library.author.dto.AuthorRequestDTO;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.common.dto.LookupRequestDTO;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +45,9 @@ class AuthorControllerTest {
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private BookRepository bookRepository;
+
     @Test
     @DisplayName("Create: Should create a new author and return 201 Created")
     void create_whenValidData_shouldReturnCreated() throws Exception {
@@ -82,6 +93,21 @@ class AuthorControllerTest {
                 .andExpect(jsonPath("$.name").value(author.getName()));
     }
 
+    @Test
+    @DisplayName("FindById: Should return 304 Not Modified when If-None-Match matches the current ETag")
+    void findById_whenIfNoneMatchMatches_shouldReturnNotModified() throws Exception {
+        // Given
+        Author author = authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+        String eTag = mockMvc.perform(get(API_URL + "/{id}", author.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get(API_URL + "/{id}", author.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     @DisplayName("FindById: Should return 404 Not Found when ID does not exist")
     void findById_whenIdDoesNotExist_shouldReturnNotFound() throws Exception {
@@ -93,6 +119,38 @@ class AuthorControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("FindAllById: Should return the requested authors in request order and list the missing ids")
+    void findAllById_shouldReturnAuthorsInRequestOrder() throws Exception {
+        // Given
+        Author orwell = authorRepository.save(new Author(null, "George Orwell"));
+        Author tolkien = authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+        UUID nonExistentId = UUID.randomUUID();
+
+        // When & Then
+        mockMvc.perform(get(API_URL)
+                        .param("ids", tolkien.getId() + "," + nonExistentId + "," + orwell.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", contains("J.R.R. Tolkien", "George Orwell")))
+                .andExpect(jsonPath("$.missing", contains(nonExistentId.toString())));
+    }
+
+    @Test
+    @DisplayName("Lookup: Should return the authors whose ids are sent in the body")
+    void lookup_shouldReturnAuthorsInRequestOrder() throws Exception {
+        // Given
+        Author author = authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+        LookupRequestDTO requestDTO = new LookupRequestDTO(List.of(author.getId(), author.getId()));
+
+        // When & Then
+        mockMvc.perform(post(API_URL + "/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", contains("J.R.R. Tolkien")))
+                .andExpect(jsonPath("$.missing", empty()));
+    }
+
     @Test
     @DisplayName("FindAll: Should return a paginated list of authors")
     void findAll_shouldReturnPaginatedList() throws Exception {
@@ -112,6 +170,33 @@ class AuthorControllerTest {
                 .andExpect(jsonPath("$.totalElements", is(2)));
     }
 
+    @Test
+    @DisplayName("FindSlice: Should return a page of authors with hasNext and an estimated total instead of the count")
+    void findSlice_shouldReturnHasNextInsteadOfTotal() throws Exception {
+        // Given
+        authorRepository.save(new Author(null, "George Orwell"));
+        authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+
+        // When & Then
+        mockMvc.perform(get(API_URL)
+                        .param("slice", "true")
+                        .param("size", "1")
+                        .param("sort", "name,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("George Orwell")))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.estimatedTotal").isNumber())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        mockMvc.perform(get(API_URL)
+                        .param("slice", "true")
+                        .param("name", "tolkien"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.estimatedTotal").value(nullValue()));
+    }
+
     @Test
     @DisplayName("Update: Should update an author and return 200 OK when ID exists")
     void update_whenIdExists_shouldUpdateAuthor() throws Exception {
@@ -128,6 +213,27 @@ class AuthorControllerTest {
                 .andExpect(jsonPath("$.name").value(requestDTO.name()));
     }
 
+    @Test
+    @DisplayName("Update: Should return 412 Precondition Failed when If-Match is stale")
+    void update_whenIfMatchIsStale_shouldReturnPreconditionFailed() throws Exception {
+        // Given
+        Author author = authorRepository.save(new Author(null, "George Martin"));
+        AuthorRequestDTO requestDTO = new AuthorRequestDTO("George R. R. Martin");
+        mockMvc.perform(put(API_URL + "/{id}", author.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0.0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0\""));
+
+        // When & Then
+        mockMvc.perform(put(API_URL + "/{id}", author.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0.0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("Update: Should return 404 Not Found when ID does not exist")
     void update_whenIdDoesNotExist_shouldReturnNotFound() throws Exception {
@@ -165,4 +271,58 @@ class AuthorControllerTest {
         mockMvc.perform(delete(API_URL + "/{id}", nonExistentId))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("Delete: Should return 409 Conflict when the author still has books")
+    void delete_whenAuthorHasBooks_shouldReturnConflict() throws Exception {
+        // Given
+        Author author = authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+        bookRepository.saveAndFlush(new Book(null, "The Hobbit", author, "978-0345339683"));
+
+        // When & Then
+        mockMvc.perform(delete(API_URL + "/{id}", author.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should walk every author exactly once following nextCursor")
+    void findAllByCursor_shouldWalkAllAuthors() throws Exception {
+        // Given
+        authorRepository.save(new Author(null, "George Orwell"));
+        authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+
+        // When & Then
+        MvcResult firstPage = mockMvc.perform(get(API_URL)
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andReturn();
+        String nextCursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get(API_URL)
+                        .param("cursor", nextCursor)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should apply the name filter in cursor mode")
+    void findAllByCursor_whenNameIsProvided_shouldReturnFilteredList() throws Exception {
+        // Given
+        authorRepository.save(new Author(null, "George Orwell"));
+        authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+
+        // When & Then
+        mockMvc.perform(get(API_URL)
+                        .param("cursor", "")
+                        .param("name", "orwell"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("George Orwell")));
+    }
 }
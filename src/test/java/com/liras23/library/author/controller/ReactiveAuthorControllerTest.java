@@ -0,0 +1,140 @@
+package com.liras23.library.author.controller;
+
+import com.liras23.library.author.dto.AuthorRequestDTO;
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.common.config.ReactiveConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Runs the API on the reactive stack against H2 through R2DBC. The requests commit their data, so it is
+ * deleted after every test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "library.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles(ReactiveConfig.PROFILE)
+@AutoConfigureWebTestClient
+class ReactiveAuthorControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @AfterEach
+    void tearDown() {
+        databaseClient.sql("DELETE FROM books").then()
+                .then(databaseClient.sql("DELETE FROM authors").then())
+                .block();
+    }
+
+    @Test
+    @DisplayName("Reactive: Should serve the API from Netty instead of Tomcat")
+    void webServer_shouldBeNetty() {
+        ReactiveWebServerApplicationContext context = assertInstanceOf(ReactiveWebServerApplicationContext.class, applicationContext);
+        assertInstanceOf(NettyWebServer.class, context.getWebServer());
+    }
+
+    @Test
+    @DisplayName("Reactive Update: Should rename the author, bump the version and honour If-Match")
+    void update_shouldRenameAndCheckIfMatch() {
+        AuthorResponseDTO author = createAuthor("Eric Blair");
+
+        webTestClient.put().uri("/api/authors/{id}", author.id())
+                .header(HttpHeaders.IF_MATCH, "\"7.0\"")
+                .bodyValue(new AuthorRequestDTO("George Orwell"))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody().jsonPath("$.error").isEqualTo("Author with id " + author.id() + " was modified since it was read.");
+        webTestClient.put().uri("/api/authors/{id}", author.id())
+                .header(HttpHeaders.IF_MATCH, author.eTag())
+                .bodyValue(new AuthorRequestDTO("George Orwell"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1.0\"")
+                .expectBody().jsonPath("$.name").isEqualTo("George Orwell");
+        webTestClient.put().uri("/api/authors/{id}", UUID.randomUUID())
+                .bodyValue(new AuthorRequestDTO("George Orwell"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Reactive Delete: Should return 409 while the author has books, and 204 then 404 otherwise")
+    void delete_shouldFollowTheForeignKey() {
+        AuthorResponseDTO author = createAuthor("George Orwell");
+        webTestClient.post().uri("/api/books")
+                .bodyValue(new BookRequestDTO("Animal Farm", author.id(), "978-0451526342"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.delete().uri("/api/authors/{id}", author.id())
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.error").isEqualTo("The request conflicts with existing data.");
+
+        AuthorResponseDTO other = createAuthor("Aldous Huxley");
+        webTestClient.delete().uri("/api/authors/{id}", other.id())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/authors/{id}", other.id())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Reactive FindAll: Should filter by name, treating wildcards literally, and validate input")
+    void findAll_shouldFilterAndPage() {
+        createAuthor("George Orwell");
+        createAuthor("George Eliot");
+        createAuthor("Aldous Huxley");
+
+        webTestClient.get().uri("/api/authors?name=GEORGE&size=1&sort=name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].name").isEqualTo("George Eliot")
+                .jsonPath("$.totalElements").isEqualTo(2);
+        webTestClient.get().uri("/api/authors?name={name}", "_")
+                .exchange()
+                .expectBody().jsonPath("$.totalElements").isEqualTo(0);
+        webTestClient.post().uri("/api/authors")
+                .bodyValue(new AuthorRequestDTO("X"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.name").isEqualTo("Author name must be between 2 and 100 characters.");
+    }
+
+    private AuthorResponseDTO createAuthor(String name) {
+        return webTestClient.post().uri("/api/authors")
+                .bodyValue(new AuthorRequestDTO(name))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(AuthorResponseDTO.class)
+                .returnResult().getResponseBody();
+    }
+}
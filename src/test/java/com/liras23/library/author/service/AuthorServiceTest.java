@@ -5,25 +5,40 @@ import com.liras23.library.author.AuthorRepository;
 import com.liras23.library.author.dto.AuthorRequestDTO;
 import com.liras23.library.author.dto.AuthorResponseDTO;
 import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.dto.SliceResponseDTO;
+import com.liras23.library.common.exception.InvalidCursorException;
+import com.liras23.library.common.exception.PreconditionFailedException;
 import com.liras23.library.common.exception.ResourceNotFoundException;
+import com.liras23.library.common.pagination.CursorPagination;
+import com.liras23.library.common.persistence.TableStatistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -33,9 +48,18 @@ class AuthorServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private BookRepository bookRepository;
+
     @Mock
     private AuthorMapper authorMapper;
 
+    @Mock
+    private TableStatistics tableStatistics;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AuthorService authorService;
 
@@ -58,7 +82,7 @@ class AuthorServiceTest {
         // Given
         UUID authorId = UUID.randomUUID();
         Author authorEntity = new Author(authorId, "J.R.R. Tolkien");
-        AuthorResponseDTO expectedResponse = new AuthorResponseDTO(authorId, "J.R.R. Tolkien");
+        AuthorResponseDTO expectedResponse = new AuthorResponseDTO(authorId, "J.R.R. Tolkien", 0L, 0L);
 
         when(authorRepository.findById(authorId)).thenReturn(Optional.of(authorEntity));
         when(authorMapper.toResponse(authorEntity)).thenReturn(expectedResponse);
@@ -72,6 +96,29 @@ class AuthorServiceTest {
         assertEquals(expectedResponse.name(), actualResponse.name());
     }
 
+    @Test
+    @DisplayName("Should return found authors in request order and report the missing ids")
+    void findAllById_shouldKeepRequestOrderAndReportMissingIds() {
+        // Given
+        Author orwell = new Author(UUID.randomUUID(), "George Orwell");
+        Author tolkien = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+        AuthorResponseDTO orwellResponse = new AuthorResponseDTO(orwell.getId(), orwell.getName(), 0L, 0L);
+        AuthorResponseDTO tolkienResponse = new AuthorResponseDTO(tolkien.getId(), tolkien.getName(), 0L, 0L);
+        UUID missingId = UUID.randomUUID();
+        List<UUID> ids = List.of(tolkien.getId(), missingId, orwell.getId());
+
+        when(authorRepository.findAllById(ids)).thenReturn(List.of(orwell, tolkien));
+        when(authorMapper.toResponse(orwell)).thenReturn(orwellResponse);
+        when(authorMapper.toResponse(tolkien)).thenReturn(tolkienResponse);
+
+        // When
+        LookupResponseDTO<AuthorResponseDTO> response = authorService.findAllById(ids);
+
+        // Then
+        assertEquals(List.of(tolkienResponse, orwellResponse), response.content());
+        assertEquals(List.of(missingId), response.missing());
+    }
+
     @Test
     @DisplayName("Should create a new author successfully")
     void create_shouldCreateNewAuthor() {
@@ -79,7 +126,7 @@ class AuthorServiceTest {
         AuthorRequestDTO requestDTO = new AuthorRequestDTO("George Orwell");
         Author authorToSave = new Author(null, "George Orwell"); // Entidade antes de salvar (sem ID)
         Author savedAuthor = new Author(UUID.randomUUID(), "George Orwell"); // Entidade depois de salvar (com ID)
-        AuthorResponseDTO expectedResponse = new AuthorResponseDTO(savedAuthor.getId(), savedAuthor.getName());
+        AuthorResponseDTO expectedResponse = new AuthorResponseDTO(savedAuthor.getId(), savedAuthor.getName(), 0L, 0L);
 
         when(authorMapper.toEntity(requestDTO)).thenReturn(authorToSave);
         when(authorRepository.save(authorToSave)).thenReturn(savedAuthor);
@@ -102,21 +149,53 @@ class AuthorServiceTest {
         AuthorRequestDTO requestDTO = new AuthorRequestDTO("J.R.R. Tolkien");
         Author existingAuthor = new Author(authorId, "John Ronald Reuel Tolkien"); // Dados antigos
         Author updatedAuthor = new Author(authorId, "J.R.R. Tolkien"); // Dados novos
-        AuthorResponseDTO expectedResponse = new AuthorResponseDTO(authorId, "J.R.R. Tolkien");
+        AuthorResponseDTO expectedResponse = new AuthorResponseDTO(authorId, "J.R.R. Tolkien", 0L, 0L);
 
         when(authorRepository.findById(authorId)).thenReturn(Optional.of(existingAuthor));
-        when(authorRepository.save(any(Author.class))).thenReturn(updatedAuthor);
+        when(authorRepository.saveAndFlush(any(Author.class))).thenReturn(updatedAuthor);
         when(authorMapper.toResponse(updatedAuthor)).thenReturn(expectedResponse);
 
         // When
-        AuthorResponseDTO actualResponse = authorService.update(authorId, requestDTO);
+        AuthorResponseDTO actualResponse = authorService.update(authorId, requestDTO, null);
 
         // Then
         assertNotNull(actualResponse);
         assertEquals(expectedResponse.id(), actualResponse.id());
         assertEquals(expectedResponse.name(), actualResponse.name());
         verify(authorRepository, times(1)).findById(authorId);
-        verify(authorRepository, times(1)).save(any(Author.class));
+        verify(authorRepository, times(1)).saveAndFlush(any(Author.class));
+        verify(bookRepository, times(1)).touchByAuthorId(authorId);
+    }
+
+    @Test
+    @DisplayName("Should not mark the author's books as changed when the name stays the same")
+    void update_whenNameIsUnchanged_shouldNotTouchBooks() {
+        // Given
+        UUID authorId = UUID.randomUUID();
+        Author existingAuthor = new Author(authorId, "J.R.R. Tolkien");
+        when(authorRepository.findById(authorId)).thenReturn(Optional.of(existingAuthor));
+        when(authorRepository.saveAndFlush(existingAuthor)).thenReturn(existingAuthor);
+
+        // When
+        authorService.update(authorId, new AuthorRequestDTO("J.R.R. Tolkien"), null);
+
+        // Then
+        verify(bookRepository, never()).touchByAuthorId(any());
+    }
+
+    @Test
+    @DisplayName("Should throw PreconditionFailedException when If-Match does not match the current version")
+    void update_whenIfMatchIsStale_shouldThrowPreconditionFailedException() {
+        // Given
+        UUID authorId = UUID.randomUUID();
+        Author existingAuthor = new Author(authorId, "John Ronald Reuel Tolkien");
+        existingAuthor.setVersion(2L);
+        when(authorRepository.findById(authorId)).thenReturn(Optional.of(existingAuthor));
+
+        // When & Then
+        assertThrows(PreconditionFailedException.class,
+                () -> authorService.update(authorId, new AuthorRequestDTO("J.R.R. Tolkien"), "\"1\""));
+        verify(authorRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -128,7 +207,7 @@ class AuthorServiceTest {
         Page<Author> authorPage = new PageImpl<>(List.of(author), pageable, 1);
 
         when(authorRepository.findAll(pageable)).thenReturn(authorPage);
-        when(authorMapper.toResponse(any(Author.class))).thenReturn(new AuthorResponseDTO(author.getId(), author.getName()));
+        when(authorMapper.toResponse(any(Author.class))).thenReturn(new AuthorResponseDTO(author.getId(), author.getName(), 0L, 0L));
 
         // When
         Page<AuthorResponseDTO> actualResponse = authorService.findAll(null, pageable);
@@ -151,7 +230,7 @@ class AuthorServiceTest {
         Page<Author> authorPage = new PageImpl<>(List.of(author), pageable, 1);
 
         when(authorRepository.findByNameContainingIgnoreCase(nameFilter, pageable)).thenReturn(authorPage);
-        when(authorMapper.toResponse(any(Author.class))).thenReturn(new AuthorResponseDTO(author.getId(), author.getName()));
+        when(authorMapper.toResponse(any(Author.class))).thenReturn(new AuthorResponseDTO(author.getId(), author.getName(), 0L, 0L));
 
         // When
         Page<AuthorResponseDTO> actualResponse = authorService.findAll(nameFilter, pageable);
@@ -165,19 +244,60 @@ class AuthorServiceTest {
     }
 
     @Test
-    @DisplayName("Should delete author successfully when author exists")
+    @DisplayName("Should return a slice of authors with the estimated total when no name is provided")
+    void findSlice_whenNoNameProvided_shouldReturnSliceWithEstimatedTotal() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+
+        when(authorRepository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(author), pageable, true));
+        when(authorMapper.toResponse(author)).thenReturn(new AuthorResponseDTO(author.getId(), author.getName(), 0L, 0L));
+        when(tableStatistics.estimateRowCount(Author.TABLE)).thenReturn(OptionalLong.of(1200));
+
+        // When
+        SliceResponseDTO<AuthorResponseDTO> response = authorService.findSlice(null, pageable);
+
+        // Then
+        assertEquals(1, response.content().size());
+        assertTrue(response.hasNext());
+        assertEquals(1200L, response.estimatedTotal());
+        verify(authorRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should return a filtered slice of authors without an estimated total when a name is provided")
+    void findSlice_whenNameProvided_shouldReturnSliceWithoutEstimatedTotal() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+
+        when(authorRepository.findSliceByNameContainingIgnoreCase("tolk", pageable))
+                .thenReturn(new SliceImpl<>(List.of(author), pageable, false));
+        when(authorMapper.toResponse(author)).thenReturn(new AuthorResponseDTO(author.getId(), author.getName(), 0L, 0L));
+
+        // When
+        SliceResponseDTO<AuthorResponseDTO> response = authorService.findSlice("tolk", pageable);
+
+        // Then
+        assertFalse(response.hasNext());
+        assertNull(response.estimatedTotal());
+        verifyNoInteractions(tableStatistics);
+    }
+
+    @Test
+    @DisplayName("Should delete author successfully with a single statement when author exists")
     void delete_whenAuthorExists_shouldDeleteAuthor() {
         // Given
         UUID authorId = UUID.randomUUID();
-        when(authorRepository.existsById(authorId)).thenReturn(true);
-        doNothing().when(authorRepository).deleteById(authorId);
+        when(authorRepository.removeById(authorId)).thenReturn(1);
 
         // When
         authorService.delete(authorId);
 
         // Then
-        verify(authorRepository, times(1)).existsById(authorId);
-        verify(authorRepository, times(1)).deleteById(authorId);
+        verify(authorRepository, times(1)).removeById(authorId);
+        verify(authorRepository, never()).existsById(any());
+        verify(authorRepository, never()).deleteById(any());
     }
 
     @Test
@@ -185,14 +305,61 @@ class AuthorServiceTest {
     void delete_whenAuthorDoesNotExist_shouldThrowResourceNotFoundException() {
         // Given
         UUID authorId = UUID.randomUUID();
-        when(authorRepository.existsById(authorId)).thenReturn(false);
+        when(authorRepository.removeById(authorId)).thenReturn(0);
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> {
             authorService.delete(authorId);
         });
 
-        verify(authorRepository, times(1)).existsById(authorId);
-        verify(authorRepository, never()).deleteById(authorId);
+        verify(authorRepository, times(1)).removeById(authorId);
+    }
+
+    @Test
+    @DisplayName("Should return the first page of authors and a cursor pointing after its last author")
+    void findAllByCursor_whenMoreAuthorsExist_shouldReturnNextCursor() {
+        // Given
+        Author first = new Author(UUID.randomUUID(), "George Orwell");
+        Author lookAhead = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+
+        when(authorRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(first, lookAhead));
+        when(authorMapper.toResponse(first)).thenReturn(new AuthorResponseDTO(first.getId(), first.getName(), 0L, 0L));
+
+        // When
+        CursorPageResponseDTO<AuthorResponseDTO> actualResponse = authorService.findAllByCursor(null, "", 1);
+
+        // Then
+        assertEquals(1, actualResponse.content().size());
+        assertTrue(actualResponse.hasNext());
+        assertEquals(first.getId(), CursorPagination.decode(actualResponse.nextCursor()));
+        verify(authorMapper, never()).toResponse(lookAhead);
+    }
+
+    @Test
+    @DisplayName("Should seek after the cursor with the name filter when both are provided")
+    void findAllByCursor_whenCursorAndNameProvided_shouldSeekFilteredAuthors() {
+        // Given
+        UUID lastSeenId = UUID.randomUUID();
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+
+        when(authorRepository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc("Tolkien", lastSeenId, Limit.of(21)))
+                .thenReturn(List.of(author));
+        when(authorMapper.toResponse(author)).thenReturn(new AuthorResponseDTO(author.getId(), author.getName(), 0L, 0L));
+
+        // When
+        CursorPageResponseDTO<AuthorResponseDTO> actualResponse =
+                authorService.findAllByCursor("Tolkien", CursorPagination.encode(lastSeenId), 20);
+
+        // Then
+        assertEquals(1, actualResponse.content().size());
+        assertFalse(actualResponse.hasNext());
+        assertNull(actualResponse.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidCursorException when the cursor is malformed")
+    void findAllByCursor_whenCursorIsMalformed_shouldThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> authorService.findAllByCursor(null, "%%%", 20));
+        verifyNoInteractions(authorRepository);
     }
 }
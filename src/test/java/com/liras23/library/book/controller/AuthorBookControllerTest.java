@@ -0,0 +1,140 @@
+package com.liras23.library.book.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.liras23.library.author.Author;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.book.dto.BookRequestDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@Transactional
+class AuthorBookControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private Author tolkien;
+    private Author lewis;
+
+    @BeforeEach
+    void setUp() {
+        tolkien = authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+        lewis = authorRepository.save(new Author(null, "C.S. Lewis"));
+    }
+
+    @Test
+    @DisplayName("FindAllByAuthor: Should page the author's books with the book count as total")
+    void findAllByAuthor_shouldReturnOnlyTheAuthorsBooks() throws Exception {
+        createBook("The Hobbit", tolkien.getId(), "978-0345339683");
+        createBook("The Silmarillion", tolkien.getId(), "978-0618391110");
+        createBook("Out of the Silent Planet", lewis.getId(), "978-0743234900");
+
+        mockMvc.perform(get("/api/authors/{id}/books", tolkien.getId())
+                        .param("size", "1")
+                        .param("sort", "title,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", is("The Hobbit")))
+                .andExpect(jsonPath("$.content[0].author.bookCount").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.totalPages", is(2)));
+    }
+
+    @Test
+    @DisplayName("FindAllByAuthor: Should break sort ties by id, so pages neither repeat nor skip books")
+    void findAllByAuthor_whenSortTies_shouldOrderPagesById() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(createBook("Tales", tolkien.getId(), "978-000000000" + i));
+        }
+
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < ids.size(); page++) {
+            String body = mockMvc.perform(get("/api/authors/{id}/books", tolkien.getId())
+                            .param("page", String.valueOf(page))
+                            .param("size", "1")
+                            .param("sort", "title,asc"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            paged.add(JsonPath.read(body, "$.content[0].id"));
+        }
+
+        // Lower-case hex strings sort like the UUID bytes the database orders by.
+        assertEquals(ids.stream().sorted().toList(), paged);
+    }
+
+    @Test
+    @DisplayName("FindAllByAuthor: Should return 404 Not Found when the author does not exist")
+    void findAllByAuthor_whenAuthorDoesNotExist_shouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/authors/{id}/books", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("BookCount: Should follow book creation, reassignment, deletion and bulk import")
+    void bookCount_shouldBeMaintainedByBookWrites() throws Exception {
+        String hobbit = createBook("The Hobbit", tolkien.getId(), "978-0345339683");
+        String silmarillion = createBook("The Silmarillion", tolkien.getId(), "978-0618391110");
+        createBook("Perelandra", tolkien.getId(), "978-0743234917");
+        expectBookCount(tolkien, 3);
+
+        mockMvc.perform(put("/api/books/{id}", silmarillion)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookRequestDTO("That Hideous Strength", lewis.getId(), "978-0618391110"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/books/{id}", hobbit))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/books/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new BookRequestDTO("Out of the Silent Planet", lewis.getId(), "978-0743234900"),
+                                new BookRequestDTO("The Screwtape Letters", lewis.getId(), "978-0060652937")))))
+                .andExpect(status().isOk());
+
+        expectBookCount(tolkien, 1);
+        expectBookCount(lewis, 3);
+    }
+
+    private String createBook(String title, UUID authorId, String isbn) throws Exception {
+        String body = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookRequestDTO(title, authorId, isbn))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.id");
+    }
+
+    private void expectBookCount(Author author, int bookCount) throws Exception {
+        mockMvc.perform(get("/api/authors/{id}", author.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookCount", is(bookCount)));
+        mockMvc.perform(get("/api/authors/{id}/books", author.getId()))
+                .andExpect(jsonPath("$.totalElements", is(bookCount)));
+    }
+}
@@ -0,0 +1,219 @@
+package com.liras23.library.book.controller;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the fetch plan of the book read paths: authors must be loaded together with the books,
+ * never with one extra select per row. Also guards the write paths against pre-check reads: ISBN
+ * uniqueness and author existence are left to the database constraints.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+@AutoConfigureMockMvc
+@Transactional
+class BookControllerQueryCountTest {
+
+    private static final String API_URL = "/api/books";
+    private static final int BOOK_COUNT = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            Author author = authorRepository.save(new Author(null, "Author " + i));
+            books.add(bookRepository.save(new Book(null, "Book " + i, author, "978-00000000" + String.format("%02d", i))));
+        }
+        // Start every request with an empty persistence context so authors cannot be served from it.
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("FindAll: Should load a page of books with their authors in one query plus the count")
+    void findAll_shouldNotLoadAuthorsPerRow() throws Exception {
+        mockMvc.perform(get(API_URL)
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(5)))
+                .andExpect(jsonPath("$.content[*].author.name", hasSize(5)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FindAll: Should load filtered books with their authors in one query plus the count")
+    void findAll_whenTitleIsProvided_shouldNotLoadAuthorsPerRow() throws Exception {
+        mockMvc.perform(get(API_URL)
+                        .param("title", "book")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(5)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FindSlice: Should load a slice of books with their authors in one query and no count")
+    void findSlice_shouldNotCount() throws Exception {
+        mockMvc.perform(get(API_URL)
+                        .param("slice", "true")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(5)))
+                .andExpect(jsonPath("$.hasNext").value(true));
+        mockMvc.perform(get(API_URL)
+                        .param("slice", "true")
+                        .param("title", "book")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(5)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should load a cursor page of books with their authors in one query")
+    void findAllByCursor_shouldNotLoadAuthorsPerRow() throws Exception {
+        mockMvc.perform(get(API_URL)
+                        .param("cursor", "")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(5)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FindById: Should load the book and its author in one query")
+    void findById_shouldLoadAuthorInSameQuery() throws Exception {
+        mockMvc.perform(get(API_URL + "/{id}", books.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.name").value("Author 0"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FindAllById: Should load the requested books and their authors in one query")
+    void findAllById_shouldLoadAuthorsInSameQuery() throws Exception {
+        mockMvc.perform(get(API_URL)
+                        .param("ids", books.stream().map(book -> book.getId().toString()).toArray(String[]::new)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].author.name", hasSize(BOOK_COUNT)));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FindAllByAuthor: Should load the author and a page of their books without a count query")
+    void findAllByAuthor_shouldNotCountBooks() throws Exception {
+        mockMvc.perform(get("/api/authors/{id}/books", books.get(0).getAuthor().getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("FindById: Should answer a matching If-None-Match from a version-only query")
+    void findById_whenIfNoneMatchMatches_shouldOnlyReadVersions() throws Exception {
+        mockMvc.perform(get(API_URL + "/{id}", books.get(0).getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0.0\""))
+                .andExpect(status().isNotModified());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Create: Should insert the book and bump the author's count without pre-check reads")
+    void create_shouldNotReadIsbnOrAuthorFirst() throws Exception {
+        mockMvc.perform(post(API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookJson("New Book", books.get(0).getAuthor().getId(), "978-0000000999")))
+                .andExpect(status().isCreated());
+
+        // insert, count update, and the author for the response, which a warm cache would serve
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Update: Should load the book with its author and update it without pre-check reads")
+    void update_shouldNotReadIsbnOrAuthorFirst() throws Exception {
+        Book book = books.get(0);
+        mockMvc.perform(put(API_URL + "/{id}", book.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookJson("Renamed Book", book.getAuthor().getId(), "978-0000000998")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author.name").value("Author 0"));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Delete: Should delete the book without loading it")
+    void delete_shouldNotLoadBook() throws Exception {
+        mockMvc.perform(delete(API_URL + "/{id}", books.get(0).getId()))
+                .andExpect(status().isNoContent());
+
+        // author id, delete, tombstone and count update
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private static String bookJson(String title, Object authorId, String isbn) {
+        return "{\"title\":\"" + title + "\",\"authorId\":\"" + authorId + "\",\"isbn\":\"" + isbn + "\"}";
+    }
+}
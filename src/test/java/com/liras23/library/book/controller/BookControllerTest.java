@@ -1,26 +1,39 @@
 package com.liras23.library.book.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import com.liras23.library.author.Author;
 import com.liras23.library.author.AuthorRepository;
 import com.liras23.library.book.Book;
 import com.liras23.library.book.BookRepository;
 import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +56,12 @@ class BookControllerTest {
     @Autowired
     private AuthorRepository authorRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
     private Author existingAuthor;
 
     @BeforeEach
@@ -99,6 +118,19 @@ class BookControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    @DisplayName("Create: Should return 409 Conflict when the ISBN differs from an existing one only in case")
+    void create_whenIsbnExistsInAnotherCase_shouldReturnConflict() throws Exception {
+        bookRepository.save(new Book(null, "Existing Book", existingAuthor, "0-8044-2957-X"));
+        BookRequestDTO requestDTO = new BookRequestDTO("The Hobbit", existingAuthor.getId(), "0-8044-2957-x");
+
+        mockMvc.perform(post(API_URL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("A book with ISBN 0-8044-2957-X already exists."));
+    }
+
     @Test
     @DisplayName("FindById: Should return a book and 200 OK when ID exists")
     void findById_whenIdExists_shouldReturnBook() throws Exception {
@@ -110,6 +142,41 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.title").value(book.getTitle()));
     }
 
+    @Test
+    @DisplayName("FindById: Should return an ETag built from the book and author versions")
+    void findById_shouldReturnETag() throws Exception {
+        Book book = bookRepository.save(new Book(null, "The Silmarillion", existingAuthor, "978-0618391110"));
+
+        mockMvc.perform(get(API_URL + "/{id}", book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.0\""))
+                .andExpect(jsonPath("$.version").value(0))
+                .andExpect(jsonPath("$.eTag").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("FindById: Should return 304 Not Modified without a body when If-None-Match matches")
+    void findById_whenIfNoneMatchMatches_shouldReturnNotModified() throws Exception {
+        Book book = bookRepository.save(new Book(null, "The Silmarillion", existingAuthor, "978-0618391110"));
+
+        mockMvc.perform(get(API_URL + "/{id}", book.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"9.9\", W/\"0.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("FindById: Should return 200 OK when If-None-Match is stale")
+    void findById_whenIfNoneMatchIsStale_shouldReturnBook() throws Exception {
+        Book book = bookRepository.save(new Book(null, "The Silmarillion", existingAuthor, "978-0618391110"));
+
+        mockMvc.perform(get(API_URL + "/{id}", book.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"9.9\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value(book.getTitle()));
+    }
+
     @Test
     @DisplayName("FindById: Should return 404 Not Found when ID does not exist")
     void findById_whenIdDoesNotExist_shouldReturnNotFound() throws Exception {
@@ -117,6 +184,52 @@ class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("FindAllById: Should return the requested books in request order and list the missing ids")
+    void findAllById_shouldReturnBooksInRequestOrder() throws Exception {
+        Book first = bookRepository.save(new Book(null, "The Hobbit", existingAuthor, "978-0345339683"));
+        Book second = bookRepository.save(new Book(null, "The Silmarillion", existingAuthor, "978-0618391110"));
+        UUID unknownId = UUID.randomUUID();
+
+        mockMvc.perform(get(API_URL)
+                        .param("ids", second.getId() + "," + unknownId + "," + first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].title", is("The Silmarillion")))
+                .andExpect(jsonPath("$.content[1].title", is("The Hobbit")))
+                .andExpect(jsonPath("$.content[1].author.name", is("J.R.R. Tolkien")))
+                .andExpect(jsonPath("$.missing", contains(unknownId.toString())));
+    }
+
+    @Test
+    @DisplayName("Lookup: Should return the books whose ids are sent in the body")
+    void lookup_shouldReturnBooksInRequestOrder() throws Exception {
+        Book book = bookRepository.save(new Book(null, "The Hobbit", existingAuthor, "978-0345339683"));
+        UUID unknownId = UUID.randomUUID();
+
+        mockMvc.perform(post(API_URL + "/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LookupRequestDTO(List.of(unknownId, book.getId())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id", contains(book.getId().toString())))
+                .andExpect(jsonPath("$.missing", contains(unknownId.toString())));
+    }
+
+    @Test
+    @DisplayName("Lookup: Should return 400 Bad Request when more ids than allowed are requested")
+    void lookup_whenTooManyIds_shouldReturnBadRequest() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i <= LookupRequestDTO.MAX_IDS; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        mockMvc.perform(post(API_URL + "/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LookupRequestDTO(ids))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("At most 100 ids can be looked up at once.")));
+    }
+
     @Test
     @DisplayName("FindAll: Should return a paginated list of books")
     void findAll_shouldReturnPaginatedList() throws Exception {
@@ -147,6 +260,42 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.content[0].title", is("The Hobbit")));
     }
 
+    @Test
+    @DisplayName("FindSlice: Should return a page of books with hasNext and an estimated total instead of the count")
+    void findSlice_shouldReturnHasNextInsteadOfTotal() throws Exception {
+        bookRepository.save(new Book(null, "The Lord of the Rings", existingAuthor, "978-0618640157"));
+        bookRepository.save(new Book(null, "The Hobbit", existingAuthor, "978-0345339683"));
+
+        mockMvc.perform(get(API_URL)
+                        .param("slice", "true")
+                        .param("page", "1")
+                        .param("size", "1")
+                        .param("sort", "title,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", is("The Lord of the Rings")))
+                .andExpect(jsonPath("$.page", is(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.estimatedTotal").isNumber())
+                .andExpect(jsonPath("$.totalPages").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("FindSlice: Should search by title without an estimated total")
+    void findSlice_whenTitleIsProvided_shouldReturnFilteredSlice() throws Exception {
+        bookRepository.save(new Book(null, "The Lord of the Rings", existingAuthor, "978-0618640157"));
+        bookRepository.save(new Book(null, "The Hobbit", existingAuthor, "978-0345339683"));
+
+        mockMvc.perform(get(API_URL)
+                        .param("slice", "true")
+                        .param("title", "the")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.estimatedTotal").value(nullValue()));
+    }
+
     @Test
     @DisplayName("Update: Should update a book and return 200 OK when ID exists")
     void update_whenIdExists_shouldUpdateBook() throws Exception {
@@ -161,6 +310,35 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.isbn").value("978-0000000222"));
     }
 
+    @Test
+    @DisplayName("Update: Should update a book and return the new ETag when If-Match matches")
+    void update_whenIfMatchMatches_shouldUpdateBook() throws Exception {
+        Book book = bookRepository.save(new Book(null, "Old Title", existingAuthor, "978-0000000111"));
+        BookRequestDTO requestDTO = new BookRequestDTO("New Title", existingAuthor.getId(), "978-0000000111");
+
+        mockMvc.perform(put(API_URL + "/{id}", book.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0.0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0\""))
+                .andExpect(jsonPath("$.title").value("New Title"));
+    }
+
+    @Test
+    @DisplayName("Update: Should return 412 Precondition Failed when If-Match is stale")
+    void update_whenIfMatchIsStale_shouldReturnPreconditionFailed() throws Exception {
+        Book book = bookRepository.save(new Book(null, "Old Title", existingAuthor, "978-0000000111"));
+        BookRequestDTO requestDTO = new BookRequestDTO("New Title", existingAuthor.getId(), "978-0000000111");
+
+        mockMvc.perform(put(API_URL + "/{id}", book.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"1.0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error", containsString(book.getId().toString())));
+    }
+
     @Test
     @DisplayName("Update: Should return 404 Not Found when ID does not exist")
     void update_whenIdDoesNotExist_shouldReturnNotFound() throws Exception {
@@ -214,4 +392,136 @@ class BookControllerTest {
         mockMvc.perform(delete(API_URL + "/{id}", UUID.randomUUID()))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should walk every book exactly once following nextCursor")
+    void findAllByCursor_shouldWalkAllBooks() throws Exception {
+        bookRepository.save(new Book(null, "The Lord of the Rings", existingAuthor, "978-0618640157"));
+        bookRepository.save(new Book(null, "The Hobbit", existingAuthor, "978-0345339683"));
+        bookRepository.save(new Book(null, "The Silmarillion", existingAuthor, "978-0618391110"));
+
+        MvcResult firstPage = mockMvc.perform(get(API_URL)
+                        .param("cursor", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn();
+        String nextCursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get(API_URL)
+                        .param("cursor", nextCursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should apply the title filter in cursor mode")
+    void findAllByCursor_whenTitleIsProvided_shouldReturnFilteredList() throws Exception {
+        bookRepository.save(new Book(null, "The Lord of the Rings", existingAuthor, "978-0618640157"));
+        bookRepository.save(new Book(null, "The Hobbit", existingAuthor, "978-0345339683"));
+
+        mockMvc.perform(get(API_URL)
+                        .param("cursor", "")
+                        .param("title", "hobbit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", is("The Hobbit")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should return 400 Bad Request when the cursor is malformed")
+    void findAllByCursor_whenCursorIsMalformed_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(API_URL)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    @DisplayName("FindChanges: Should list changed books and deleted ones in change order, holding back the latest")
+    void findChanges_shouldListChangesAndTombstonesInChangeOrder() throws Exception {
+        Instant since = Instant.now().minusSeconds(120);
+        Book changed = bookRepository.save(new Book(null, "The Hobbit", existingAuthor, "978-0345339683"));
+        Book deleted = bookRepository.save(new Book(null, "To be deleted", existingAuthor, "978-0000000555"));
+        bookRepository.saveAndFlush(new Book(null, "Changed just now", existingAuthor, "978-0618391110"));
+        mockMvc.perform(delete(API_URL + "/{id}", deleted.getId()))
+                .andExpect(status().isNoContent());
+        // Older than the settle window, unlike the book written just now
+        jdbcTemplate.update("UPDATE books SET updated_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minusSeconds(60)), changed.getId());
+        jdbcTemplate.update("UPDATE book_tombstones SET deleted_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minusSeconds(30)), deleted.getId());
+        entityManager.clear();
+
+        MvcResult result = mockMvc.perform(get(API_URL + "/changes")
+                        .param("since", since.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", is(changed.getId().toString())))
+                .andExpect(jsonPath("$.content[0].deleted", is(false)))
+                .andExpect(jsonPath("$.content[0].data.title", is("The Hobbit")))
+                .andExpect(jsonPath("$.content[1].id", is(deleted.getId().toString())))
+                .andExpect(jsonPath("$.content[1].deleted", is(true)))
+                .andExpect(jsonPath("$.hasNext", is(false)))
+                .andReturn();
+        String nextCursor = JsonPath.read(result.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get(API_URL + "/changes")
+                        .param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor", is(nextCursor)));
+    }
+
+    @Test
+    @DisplayName("CreateBatch: Should create the valid books and report a result for every row")
+    void createBatch_whenRowsAreMixed_shouldReportEachRow() throws Exception {
+        bookRepository.save(new Book(null, "Existing Book", existingAuthor, "978-0345339683"));
+        List<BookRequestDTO> requestDTOs = List.of(
+                new BookRequestDTO("The Silmarillion", existingAuthor.getId(), "978-0618391110"),
+                new BookRequestDTO("The Hobbit", existingAuthor.getId(), "978-0345339683"),
+                new BookRequestDTO("Unfinished Tales", UUID.randomUUID(), "978-0618154050"),
+                new BookRequestDTO("", existingAuthor.getId(), "978-0000000999")
+        );
+
+        mockMvc.perform(post(API_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTOs)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(4)))
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(3)))
+                .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.results[0].id").isNotEmpty())
+                .andExpect(jsonPath("$.results[1].status", is("DUPLICATE_ISBN")))
+                .andExpect(jsonPath("$.results[2].status", is("AUTHOR_NOT_FOUND")))
+                .andExpect(jsonPath("$.results[3].status", is("INVALID")));
+
+        assertEquals(List.of("978-0618391110"), bookRepository.findExistingIsbns(List.of("978-0618391110")));
+    }
+
+    @Test
+    @DisplayName("CreateBatch: Should import an NDJSON stream and report malformed lines as invalid")
+    void createBatch_whenBodyIsNdjson_shouldImportEachLine() throws Exception {
+        String body = objectMapper.writeValueAsString(new BookRequestDTO("The Hobbit", existingAuthor.getId(), "978-0345339683")) + "\n"
+                + "{not json}\n"
+                + "\n"
+                + objectMapper.writeValueAsString(new BookRequestDTO("The Silmarillion", existingAuthor.getId(), "978-0618391110")) + "\n";
+
+        mockMvc.perform(post(API_URL + "/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.results[1].status", is("INVALID")))
+                .andExpect(jsonPath("$.results[2].index", is(2)))
+                .andExpect(jsonPath("$.results[2].status", is("CREATED")));
+    }
 }
@@ -0,0 +1,105 @@
+package com.liras23.library.book.controller;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The export body is written on an async thread with its own transaction, so this test commits its
+ * data instead of relying on a rolled-back test transaction, and cleans up afterwards.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+class BookExportControllerTest {
+
+    private static final String API_URL = "/api/books/export";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @BeforeEach
+    void setUp() {
+        Author author = authorRepository.save(new Author(null, "Tolkien, J.R.R."));
+        bookRepository.save(new Book(null, "The Hobbit", author, "978-0345339683"));
+        bookRepository.save(new Book(null, "The Lord of the Rings, \"Deluxe\"", author, "978-0618640157"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Export: Should stream one JSON object per line by default")
+    void export_whenFormatIsNotProvided_shouldStreamNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get(API_URL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", containsString("books.ndjson")))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"id\":"));
+        }
+    }
+
+    @Test
+    @DisplayName("Export: Should stream a CSV with a header and escaped fields")
+    void export_whenFormatIsCsv_shouldStreamCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get(API_URL).param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,title,isbn,authorId,authorName", lines[0]);
+        assertTrue(body.contains("\"The Lord of the Rings, \"\"Deluxe\"\"\""));
+        assertTrue(body.contains(",\"Tolkien, J.R.R.\""));
+    }
+
+    @Test
+    @DisplayName("Export: Should return 400 Bad Request for an unknown format")
+    void export_whenFormatIsUnknown_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get(API_URL).param("format", "XML"))
+                .andExpect(status().isBadRequest());
+    }
+}
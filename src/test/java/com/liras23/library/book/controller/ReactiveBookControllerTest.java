@@ -0,0 +1,226 @@
+package com.liras23.library.book.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.liras23.library.author.dto.AuthorRequestDTO;
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.common.config.ReactiveConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the API on the reactive stack against H2 through R2DBC. The requests commit their data, so it is
+ * deleted after every test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "library.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles(ReactiveConfig.PROFILE)
+@AutoConfigureWebTestClient
+class ReactiveBookControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private AuthorResponseDTO tolkien;
+    private AuthorResponseDTO lewis;
+
+    @BeforeEach
+    void setUp() {
+        tolkien = createAuthor("J.R.R. Tolkien");
+        lewis = createAuthor("C.S. Lewis");
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseClient.sql("DELETE FROM books").then()
+                .then(databaseClient.sql("DELETE FROM authors").then())
+                .block();
+    }
+
+    @Test
+    @DisplayName("Reactive Create: Should create a book, count it for its author and serve it with an ETag")
+    void create_thenFindById_shouldReturnBookWithETag() {
+        BookResponseDTO book = createBook("The Hobbit", tolkien.id(), "978-0345339683");
+
+        String eTag = webTestClient.get().uri("/api/books/{id}", book.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0." + tolkien.version() + "\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("The Hobbit")
+                .jsonPath("$.author.name").isEqualTo("J.R.R. Tolkien")
+                .jsonPath("$.author.bookCount").doesNotExist()
+                .returnResult().getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/books/{id}", book.id())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/api/authors/{id}", tolkien.id())
+                .exchange()
+                .expectBody().jsonPath("$.bookCount").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reactive Create: Should return the same errors as the servlet stack")
+    void create_whenInvalid_shouldReturnErrorContract() {
+        createBook("Nineteen Eighty-Four", tolkien.id(), "0-8044-2957-X");
+
+        webTestClient.post().uri("/api/books")
+                .bodyValue(new BookRequestDTO("Animal Farm", tolkien.id(), "0-8044-2957-x"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.error").isEqualTo("A book with ISBN 0-8044-2957-X already exists.");
+        UUID unknownAuthor = UUID.randomUUID();
+        webTestClient.post().uri("/api/books")
+                .bodyValue(new BookRequestDTO("Animal Farm", unknownAuthor, "978-0451526342"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Author not found with id: " + unknownAuthor);
+        webTestClient.post().uri("/api/books")
+                .bodyValue(new BookRequestDTO("", tolkien.id(), "978-0451526342"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.title").exists();
+        webTestClient.get().uri("/api/books?cursor=abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Invalid cursor: abc");
+    }
+
+    @Test
+    @DisplayName("Reactive Update: Should reject a stale If-Match and move the book between authors")
+    void update_shouldCheckIfMatchAndAdjustBookCounts() {
+        BookResponseDTO book = createBook("The Silmarillion", tolkien.id(), "978-0618391110");
+
+        webTestClient.put().uri("/api/books/{id}", book.id())
+                .header(HttpHeaders.IF_MATCH, "\"5.0\"")
+                .bodyValue(new BookRequestDTO("That Hideous Strength", lewis.id(), "978-0618391110"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.put().uri("/api/books/{id}", book.id())
+                .header(HttpHeaders.IF_MATCH, book.eTag())
+                .bodyValue(new BookRequestDTO("That Hideous Strength", lewis.id(), "978-0618391110"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1." + lewis.version() + "\"")
+                .expectBody()
+                .jsonPath("$.author.id").isEqualTo(lewis.id().toString())
+                .jsonPath("$.version").isEqualTo(1);
+
+        assertEquals(0, findAuthor(tolkien.id()).bookCount());
+        assertEquals(1, findAuthor(lewis.id()).bookCount());
+    }
+
+    @Test
+    @DisplayName("Reactive Delete: Should delete the book and uncount it, and return 404 the second time")
+    void delete_shouldRemoveBookAndAdjustBookCount() {
+        BookResponseDTO book = createBook("The Hobbit", tolkien.id(), "978-0345339683");
+
+        webTestClient.delete().uri("/api/books/{id}", book.id())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/books/{id}", book.id())
+                .exchange()
+                .expectStatus().isNotFound();
+
+        assertEquals(0, findAuthor(tolkien.id()).bookCount());
+    }
+
+    @Test
+    @DisplayName("Reactive FindAll: Should page, search, seek and look up books like the servlet stack")
+    void findAll_shouldSupportEveryListingMode() {
+        BookResponseDTO hobbit = createBook("The Hobbit", tolkien.id(), "978-0345339683");
+        createBook("The Silmarillion", tolkien.id(), "978-0618391110");
+        createBook("Out of the Silent Planet", lewis.id(), "978-0743234900");
+
+        webTestClient.get().uri("/api/books?title=the s&size=1&sort=title,desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].title").isEqualTo("The Silmarillion")
+                .jsonPath("$.totalElements").isEqualTo(2);
+        webTestClient.get().uri("/api/books?cursor=&size=2")
+                .exchange()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.hasNext").isEqualTo(true);
+        webTestClient.get().uri("/api/authors/{id}/books", tolkien.id())
+                .exchange()
+                .expectBody().jsonPath("$.totalElements").isEqualTo(2);
+        UUID missing = UUID.randomUUID();
+        webTestClient.get().uri("/api/books?ids={a},{b}", hobbit.id(), missing)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(hobbit.id().toString())
+                .jsonPath("$.missing[0]").isEqualTo(missing.toString());
+    }
+
+    @Test
+    @DisplayName("Reactive Content negotiation: Should encode books in CBOR when asked for")
+    void findById_whenAcceptIsCbor_shouldReturnCborBook() throws Exception {
+        BookResponseDTO book = createBook("The Hobbit", tolkien.id(), "978-0345339683");
+
+        byte[] body = webTestClient.get().uri("/api/books/{id}", book.id())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+
+        JsonNode decoded = new CBORMapper().readTree(body);
+        assertEquals("The Hobbit", decoded.get("title").asText());
+        assertEquals("J.R.R. Tolkien", decoded.get("author").get("name").asText());
+    }
+
+    private AuthorResponseDTO createAuthor(String name) {
+        return webTestClient.post().uri("/api/authors")
+                .bodyValue(new AuthorRequestDTO(name))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(AuthorResponseDTO.class)
+                .returnResult().getResponseBody();
+    }
+
+    private AuthorResponseDTO findAuthor(UUID id) {
+        return webTestClient.get().uri("/api/authors/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(AuthorResponseDTO.class)
+                .returnResult().getResponseBody();
+    }
+
+    private BookResponseDTO createBook(String title, UUID authorId, String isbn) {
+        return webTestClient.post().uri("/api/books")
+                .bodyValue(new BookRequestDTO(title, authorId, isbn))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookResponseDTO.class)
+                .returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,140 @@
+package com.liras23.library.book.service;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.BookTombstone;
+import com.liras23.library.book.BookTombstoneRepository;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import com.liras23.library.common.dto.ChangeDTO;
+import com.liras23.library.common.dto.ChangesResponseDTO;
+import com.liras23.library.common.exception.InvalidCursorException;
+import com.liras23.library.common.pagination.ChangeCursor;
+import com.liras23.library.common.persistence.DatabaseClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookChangeServiceTest {
+
+    private static final Instant T1 = Instant.parse("2024-06-01T12:00:00Z");
+    private static final Instant T2 = T1.plusSeconds(10);
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookTombstoneRepository bookTombstoneRepository;
+
+    @Mock
+    private DatabaseClock databaseClock;
+
+    private BookChangeService bookChangeService;
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        bookChangeService = new BookChangeService(bookRepository, bookTombstoneRepository,
+                new BookMapper(new AuthorMapper()), databaseClock, Duration.ofSeconds(2));
+        author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+    }
+
+    @Test
+    @DisplayName("FindChanges: Should merge changed books and tombstones in change order")
+    void findChanges_shouldMergeBooksAndTombstonesInChangeOrder() {
+        // Given
+        when(databaseClock.now()).thenReturn(T2.plusSeconds(60));
+        Book hobbit = book(new UUID(1, 1), "The Hobbit", T1);
+        Book silmarillion = book(new UUID(1, 3), "The Silmarillion", T2);
+        UUID deletedId = new UUID(1, 2);
+        when(bookRepository.findChangedAfter(eq(Instant.EPOCH), any(), any(), eq(Limit.of(11))))
+                .thenReturn(List.of(hobbit, silmarillion));
+        when(bookTombstoneRepository.findDeletedAfter(eq(Instant.EPOCH), any(), any(), eq(Limit.of(11))))
+                .thenReturn(List.of(new BookTombstone(deletedId, T1)));
+
+        // When
+        ChangesResponseDTO<BookResponseDTO> changes = bookChangeService.findChanges(null, null, 10);
+
+        // Then
+        assertEquals(List.of(hobbit.getId(), deletedId, silmarillion.getId()),
+                changes.content().stream().map(ChangeDTO::id).toList());
+        assertFalse(changes.content().get(0).deleted());
+        assertEquals("The Hobbit", changes.content().get(0).data().title());
+        assertTrue(changes.content().get(1).deleted());
+        assertNull(changes.content().get(1).data());
+        assertFalse(changes.hasNext());
+        assertEquals(new ChangeCursor(T2, silmarillion.getId()), ChangeCursor.decode(changes.nextCursor()));
+        verify(bookRepository).findChangedAfter(any(), any(),
+                eq(T2.plusSeconds(58)), any());
+    }
+
+    @Test
+    @DisplayName("FindChanges: Should stop at the page size and continue after its last change")
+    void findChanges_whenMoreChangesThanSize_shouldReturnCursorOfLastChange() {
+        // Given
+        when(databaseClock.now()).thenReturn(T2.plusSeconds(60));
+        Book hobbit = book(new UUID(1, 1), "The Hobbit", T1);
+        Book silmarillion = book(new UUID(1, 3), "The Silmarillion", T2);
+        when(bookRepository.findChangedAfter(any(), any(), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(hobbit, silmarillion));
+        when(bookTombstoneRepository.findDeletedAfter(any(), any(), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(new BookTombstone(new UUID(1, 2), T1)));
+
+        // When
+        ChangesResponseDTO<BookResponseDTO> changes = bookChangeService.findChanges(T1, null, 1);
+
+        // Then
+        assertEquals(1, changes.content().size());
+        assertTrue(changes.hasNext());
+        assertEquals(new ChangeCursor(T1, hobbit.getId()), ChangeCursor.decode(changes.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("FindChanges: Should resume after the cursor and hand it back when nothing changed")
+    void findChanges_whenNothingChangedAfterCursor_shouldReturnSameCursor() {
+        // Given
+        when(databaseClock.now()).thenReturn(T2.plusSeconds(60));
+        ChangeCursor cursor = new ChangeCursor(T2, new UUID(1, 3));
+        when(bookRepository.findChangedAfter(eq(T2), eq(cursor.id()), any(), any())).thenReturn(List.of());
+        when(bookTombstoneRepository.findDeletedAfter(eq(T2), eq(cursor.id()), any(), any())).thenReturn(List.of());
+
+        // When
+        ChangesResponseDTO<BookResponseDTO> changes = bookChangeService.findChanges(T1, cursor.encode(), 10);
+
+        // Then
+        assertTrue(changes.content().isEmpty());
+        assertFalse(changes.hasNext());
+        assertEquals(cursor, ChangeCursor.decode(changes.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("FindChanges: Should throw InvalidCursorException for a malformed cursor")
+    void findChanges_whenCursorIsMalformed_shouldThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> bookChangeService.findChanges(null, "not-a-cursor", 10));
+        verifyNoInteractions(bookRepository, bookTombstoneRepository, databaseClock);
+    }
+
+    private Book book(UUID id, String title, Instant updatedAt) {
+        Book book = new Book(id, title, author, "978-000000000" + id.getLeastSignificantBits());
+        book.setVersion(0L);
+        book.setUpdatedAt(updatedAt);
+        return book;
+    }
+}
@@ -0,0 +1,159 @@
+package com.liras23.library.book.service;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.author.service.AuthorService;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.dto.BookBatchResponseDTO;
+import com.liras23.library.book.dto.BookImportStatus;
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private AuthorService authorService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+    }
+
+    private BookImportService bookImportService(int chunkSize) {
+        BookMapper bookMapper = new BookMapper(new AuthorMapper());
+        BookChunkWriter bookChunkWriter = new BookChunkWriter(bookRepository, authorRepository, authorService, bookMapper,
+                transactionManager, entityManager, eventPublisher);
+        return new BookImportService(bookChunkWriter, VALIDATOR, chunkSize);
+    }
+
+    @Test
+    @DisplayName("ImportBooks: Should report a result for every row and insert only the valid ones")
+    void importBooks_whenRowsAreMixed_shouldReportEachRow() {
+        // Given
+        UUID unknownAuthorId = UUID.randomUUID();
+        List<BookRequestDTO> requests = Arrays.asList(
+                new BookRequestDTO("The Hobbit", author.getId(), "978-0345339683"),
+                new BookRequestDTO("", author.getId(), "978-0618391110"),
+                new BookRequestDTO("The Silmarillion", author.getId(), "978-0000000001"),
+                new BookRequestDTO("Duplicate In Batch", author.getId(), "978-0345339683"),
+                new BookRequestDTO("Unknown Author", unknownAuthorId, "978-0000000002"),
+                null
+        );
+        List<Book> savedBooks = new ArrayList<>();
+
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of("978-0000000001"));
+        when(authorRepository.findAllById(anyCollection())).thenReturn(List.of(author));
+        when(bookRepository.saveAllAndFlush(anyCollection())).thenAnswer(invocation -> {
+            Collection<Book> books = invocation.getArgument(0);
+            books.forEach(book -> book.setId(UUID.randomUUID()));
+            savedBooks.addAll(books);
+            return List.copyOf(books);
+        });
+
+        // When
+        BookBatchResponseDTO response = bookImportService(500).importBooks(requests.iterator());
+
+        // Then
+        assertEquals(6, response.total());
+        assertEquals(1, response.created());
+        assertEquals(5, response.failed());
+        assertEquals(BookImportStatus.CREATED, response.results().get(0).status());
+        assertNotNull(response.results().get(0).id());
+        assertEquals(BookImportStatus.INVALID, response.results().get(1).status());
+        assertEquals(BookImportStatus.DUPLICATE_ISBN, response.results().get(2).status());
+        assertEquals(BookImportStatus.DUPLICATE_ISBN, response.results().get(3).status());
+        assertEquals(BookImportStatus.AUTHOR_NOT_FOUND, response.results().get(4).status());
+        assertEquals(BookImportStatus.INVALID, response.results().get(5).status());
+        assertEquals(1, savedBooks.size());
+        assertEquals(author, savedBooks.get(0).getAuthor());
+        verify(authorService).adjustBookCount(author.getId(), 1L);
+    }
+
+    @Test
+    @DisplayName("ImportBooks: Should resolve ISBNs and authors once per chunk")
+    void importBooks_shouldQueryOncePerChunk() {
+        // Given
+        List<BookRequestDTO> requests = List.of(
+                new BookRequestDTO("Book 1", author.getId(), "978-0000000001"),
+                new BookRequestDTO("Book 2", author.getId(), "978-0000000002"),
+                new BookRequestDTO("Book 3", author.getId(), "978-0000000003")
+        );
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(authorRepository.findAllById(anyCollection())).thenReturn(List.of(author));
+
+        // When
+        BookBatchResponseDTO response = bookImportService(2).importBooks(requests.iterator());
+
+        // Then
+        assertEquals(3, response.created());
+        verify(bookRepository, times(2)).findExistingIsbns(anyCollection());
+        verify(authorRepository, times(2)).findAllById(anyCollection());
+        verify(bookRepository, times(2)).saveAllAndFlush(anyCollection());
+        verify(bookRepository, never()).save(any());
+        verify(authorService).adjustBookCount(author.getId(), 2L);
+        verify(authorService).adjustBookCount(author.getId(), 1L);
+    }
+
+    @Test
+    @DisplayName("ImportBooks: Should mark the rows of a chunk as failed when a concurrent write breaks a constraint")
+    void importBooks_whenChunkViolatesConstraint_shouldMarkChunkAsFailed() {
+        // Given
+        List<BookRequestDTO> requests = List.of(new BookRequestDTO("The Hobbit", author.getId(), "978-0345339683"));
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(authorRepository.findAllById(anyCollection())).thenReturn(List.of(author));
+        when(bookRepository.saveAllAndFlush(anyCollection())).thenThrow(new DataIntegrityViolationException("uk_books_isbn"));
+
+        // When
+        BookBatchResponseDTO response = bookImportService(500).importBooks(requests.iterator());
+
+        // Then
+        assertEquals(0, response.created());
+        assertEquals(BookImportStatus.FAILED, response.results().get(0).status());
+    }
+}
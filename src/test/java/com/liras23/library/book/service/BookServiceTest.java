@@ -3,30 +3,51 @@ package com.liras23.library.book.service;
 import com.liras23.library.author.Author;
 import com.liras23.library.author.AuthorRepository;
 import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.author.service.AuthorService;
 import com.liras23.library.book.Book;
 import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.BookTombstoneRepository;
 import com.liras23.library.book.dto.BookRequestDTO;
 import com.liras23.library.book.dto.BookResponseDTO;
 import com.liras23.library.book.mapper.BookMapper;
+import com.liras23.library.common.dto.CursorPageResponseDTO;
+import com.liras23.library.common.dto.LookupRequestDTO;
+import com.liras23.library.common.dto.LookupResponseDTO;
+import com.liras23.library.common.dto.SliceResponseDTO;
 import com.liras23.library.common.exception.DuplicateResourceException;
+import com.liras23.library.common.exception.InvalidCursorException;
+import com.liras23.library.common.exception.PreconditionFailedException;
 import com.liras23.library.common.exception.ResourceNotFoundException;
+import com.liras23.library.common.exception.TooManyIdsException;
+import com.liras23.library.common.pagination.CursorPagination;
+import com.liras23.library.common.persistence.TableStatistics;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,12 +56,24 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BookTombstoneRepository bookTombstoneRepository;
+
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private AuthorService authorService;
+
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private TableStatistics tableStatistics;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookService bookService;
 
@@ -61,7 +94,7 @@ class BookServiceTest {
         // Given
         Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
         Book book = new Book(UUID.randomUUID(), "The Hobbit", author, "978-0345339683");
-        BookResponseDTO expectedResponse = new BookResponseDTO(book.getId(), book.getTitle(), new AuthorResponseDTO(author.getId(), author.getName()), book.getIsbn());
+        BookResponseDTO expectedResponse = new BookResponseDTO(book.getId(), book.getTitle(), new AuthorResponseDTO(author.getId(), author.getName(), 0L, null), book.getIsbn(), 0L);
 
         when(bookRepository.findById(book.getId())).thenReturn(Optional.of(book));
         when(bookMapper.toResponse(book)).thenReturn(expectedResponse);
@@ -75,20 +108,60 @@ class BookServiceTest {
     }
 
     @Test
-    @DisplayName("Create: Should create a new book successfully")
+    @DisplayName("FindAllById: Should return found books in request order and report the missing ids")
+    void findAllById_shouldKeepRequestOrderAndReportMissingIds() {
+        // Given
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+        AuthorResponseDTO authorResponse = new AuthorResponseDTO(author.getId(), author.getName(), 0L, 0L);
+        Book first = new Book(UUID.randomUUID(), "The Hobbit", author, "978-0345339683");
+        Book second = new Book(UUID.randomUUID(), "The Silmarillion", author, "978-0618391110");
+        BookResponseDTO firstResponse = new BookResponseDTO(first.getId(), first.getTitle(), authorResponse, first.getIsbn(), 0L);
+        BookResponseDTO secondResponse = new BookResponseDTO(second.getId(), second.getTitle(), authorResponse, second.getIsbn(), 0L);
+        UUID missingId = UUID.randomUUID();
+        List<UUID> ids = List.of(second.getId(), missingId, first.getId(), second.getId());
+
+        when(bookRepository.findAllById(ids)).thenReturn(List.of(first, second));
+        when(bookMapper.toResponse(first)).thenReturn(firstResponse);
+        when(bookMapper.toResponse(second)).thenReturn(secondResponse);
+
+        // When
+        LookupResponseDTO<BookResponseDTO> response = bookService.findAllById(ids);
+
+        // Then
+        assertEquals(List.of(secondResponse, firstResponse), response.content());
+        assertEquals(List.of(missingId), response.missing());
+    }
+
+    @Test
+    @DisplayName("FindAllById: Should throw TooManyIdsException without querying when too many ids are requested")
+    void findAllById_whenTooManyIds_shouldThrowTooManyIdsException() {
+        // Given
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i <= LookupRequestDTO.MAX_IDS; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        // When & Then
+        assertThrows(TooManyIdsException.class, () -> bookService.findAllById(ids));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Create: Should create a new book without reading the ISBN or the author first")
     void create_shouldCreateNewBook() {
         // Given
         Author author = new Author(UUID.randomUUID(), "George Orwell");
         BookRequestDTO requestDTO = new BookRequestDTO("1984", author.getId(), "978-0451524935");
-        Book bookToSave = new Book(null, "1984", author, "978-0451524935");
+        Book bookToSave = new Book(null, "1984", null, "978-0451524935");
         Book savedBook = new Book(UUID.randomUUID(), "1984", author, "978-0451524935");
-        BookResponseDTO expectedResponse = new BookResponseDTO(savedBook.getId(), savedBook.getTitle(), new AuthorResponseDTO(author.getId(), author.getName()), savedBook.getIsbn());
+        AuthorResponseDTO authorResponse = new AuthorResponseDTO(author.getId(), author.getName(), 0L, 1L);
+        BookResponseDTO expectedResponse = new BookResponseDTO(savedBook.getId(), savedBook.getTitle(), authorResponse, savedBook.getIsbn(), 0L);
 
-        when(bookRepository.findByIsbnIgnoreCase(requestDTO.isbn())).thenReturn(Optional.empty());
-        when(authorRepository.findById(requestDTO.authorId())).thenReturn(Optional.of(author));
+        when(authorRepository.getReferenceById(author.getId())).thenReturn(author);
         when(bookMapper.toEntity(requestDTO)).thenReturn(bookToSave);
-        when(bookRepository.save(bookToSave)).thenReturn(savedBook);
-        when(bookMapper.toResponse(savedBook)).thenReturn(expectedResponse);
+        when(bookRepository.saveAndFlush(bookToSave)).thenReturn(savedBook);
+        when(authorService.findById(requestDTO.authorId())).thenReturn(authorResponse);
+        when(bookMapper.toResponse(savedBook, authorResponse)).thenReturn(expectedResponse);
 
         // When
         BookResponseDTO actualResponse = bookService.create(requestDTO);
@@ -96,72 +169,130 @@ class BookServiceTest {
         // Then
         assertNotNull(actualResponse);
         assertEquals(expectedResponse, actualResponse);
+        assertEquals(author, bookToSave.getAuthor());
+        verify(authorService).adjustBookCount(author.getId(), 1);
     }
 
     @Test
-    @DisplayName("Create: Should throw DuplicateResourceException when ISBN already exists")
+    @DisplayName("Create: Should throw DuplicateResourceException when the ISBN unique constraint is violated")
     void create_whenIsbnExists_shouldThrowDuplicateResourceException() {
         // Given
         BookRequestDTO requestDTO = new BookRequestDTO("1984", UUID.randomUUID(), "978-0451524935");
-        when(bookRepository.findByIsbnIgnoreCase(requestDTO.isbn())).thenReturn(Optional.of(new Book()));
+        when(bookMapper.toEntity(requestDTO)).thenReturn(new Book(null, "1984", null, requestDTO.isbn()));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenThrow(violationOf("PUBLIC.UK_BOOKS_ISBN_INDEX_3"));
 
         // When & Then
         assertThrows(DuplicateResourceException.class, () -> bookService.create(requestDTO));
-        verify(authorRepository, never()).findById(any());
-        verify(bookRepository, never()).save(any());
+        verify(authorService, never()).adjustBookCount(any(), anyLong());
     }
 
     @Test
-    @DisplayName("Create: Should throw ResourceNotFoundException when author does not exist")
+    @DisplayName("Create: Should throw ResourceNotFoundException when the author foreign key is violated")
     void create_whenAuthorNotFound_shouldThrowResourceNotFoundException() {
         // Given
-        BookRequestDTO requestDTO = new BookRequestDTO("1984", UUID.randomUUID(), "978-0451524935");
-        when(bookRepository.findByIsbnIgnoreCase(requestDTO.isbn())).thenReturn(Optional.empty());
-        when(authorRepository.findById(requestDTO.authorId())).thenReturn(Optional.empty());
+        Author missingAuthor = new Author(UUID.randomUUID(), null);
+        BookRequestDTO requestDTO = new BookRequestDTO("1984", missingAuthor.getId(), "978-0451524935");
+        when(bookMapper.toEntity(requestDTO)).thenReturn(new Book(null, "1984", null, requestDTO.isbn()));
+        when(authorRepository.getReferenceById(missingAuthor.getId())).thenReturn(missingAuthor);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenThrow(violationOf("fk_books_author_id"));
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> bookService.create(requestDTO));
-        verify(bookRepository, never()).save(any());
+        verify(authorService, never()).adjustBookCount(any(), anyLong());
     }
 
     @Test
-    @DisplayName("Update: Should update book successfully")
+    @DisplayName("Create: Should rethrow violations of other constraints")
+    void create_whenOtherConstraintIsViolated_shouldRethrow() {
+        // Given
+        BookRequestDTO requestDTO = new BookRequestDTO("1984", UUID.randomUUID(), "978-0451524935");
+        when(bookMapper.toEntity(requestDTO)).thenReturn(new Book(null, "1984", null, requestDTO.isbn()));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenThrow(violationOf("ck_books_title"));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> bookService.create(requestDTO));
+    }
+
+    @Test
+    @DisplayName("Update: Should update book successfully, reusing the author loaded with the book")
     void update_shouldUpdateBook() {
         // Given
         Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
         Book existingBook = new Book(UUID.randomUUID(), "The Hobbit", author, "978-0345339683");
         BookRequestDTO requestDTO = new BookRequestDTO("The Hobbit, or There and Back Again", author.getId(), "978-0345339683");
         Book updatedBook = new Book(existingBook.getId(), requestDTO.title(), author, requestDTO.isbn());
-        BookResponseDTO expectedResponse = new BookResponseDTO(updatedBook.getId(), updatedBook.getTitle(), new AuthorResponseDTO(author.getId(), author.getName()), updatedBook.getIsbn());
+        AuthorResponseDTO authorResponse = new AuthorResponseDTO(author.getId(), author.getName(), 0L, null);
+        BookResponseDTO expectedResponse = new BookResponseDTO(updatedBook.getId(), updatedBook.getTitle(), authorResponse, updatedBook.getIsbn(), 0L);
 
         when(bookRepository.findById(existingBook.getId())).thenReturn(Optional.of(existingBook));
-        when(bookRepository.findByIsbnIgnoreCase(requestDTO.isbn())).thenReturn(Optional.of(existingBook)); // ISBN belongs to the same book
-        when(authorRepository.findById(requestDTO.authorId())).thenReturn(Optional.of(author));
-        when(bookRepository.save(any(Book.class))).thenReturn(updatedBook);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(updatedBook);
         when(bookMapper.toResponse(updatedBook)).thenReturn(expectedResponse);
 
         // When
-        BookResponseDTO actualResponse = bookService.update(existingBook.getId(), requestDTO);
+        BookResponseDTO actualResponse = bookService.update(existingBook.getId(), requestDTO, null);
 
         // Then
         assertNotNull(actualResponse);
         assertEquals(expectedResponse, actualResponse);
+        verify(authorService, never()).findById(any());
+        verify(authorService, never()).adjustBookCount(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Update: Should move the book from the previous author's count to the new author's")
+    void update_whenAuthorChanges_shouldAdjustBothBookCounts() {
+        // Given
+        Author previousAuthor = new Author(UUID.randomUUID(), "Eric Blair");
+        Author newAuthor = new Author(UUID.randomUUID(), "George Orwell");
+        Book existingBook = new Book(UUID.randomUUID(), "1984", previousAuthor, "978-0451524935");
+        BookRequestDTO requestDTO = new BookRequestDTO("1984", newAuthor.getId(), existingBook.getIsbn());
+        AuthorResponseDTO authorResponse = new AuthorResponseDTO(newAuthor.getId(), newAuthor.getName(), 0L, 1L);
+
+        when(bookRepository.findById(existingBook.getId())).thenReturn(Optional.of(existingBook));
+        when(authorService.findById(newAuthor.getId())).thenReturn(authorResponse);
+        when(authorRepository.getReferenceById(newAuthor.getId())).thenReturn(newAuthor);
+        when(bookRepository.saveAndFlush(existingBook)).thenReturn(existingBook);
+
+        // When
+        bookService.update(existingBook.getId(), requestDTO, null);
+
+        // Then
+        assertEquals(newAuthor, existingBook.getAuthor());
+        verify(authorService).adjustBookCount(previousAuthor.getId(), -1);
+        verify(authorService).adjustBookCount(newAuthor.getId(), 1);
     }
 
     @Test
     @DisplayName("Update: Should throw DuplicateResourceException when new ISBN belongs to another book")
     void update_whenIsbnExistsInAnotherBook_shouldThrowDuplicateResourceException() {
         // Given
-        Book existingBook = new Book(UUID.randomUUID(), "The Hobbit", new Author(), "978-0345339683");
-        Book anotherBookWithSameIsbn = new Book(UUID.randomUUID(), "Another Book", new Author(), "978-0000000001");
-        BookRequestDTO requestDTO = new BookRequestDTO("The Hobbit", UUID.randomUUID(), anotherBookWithSameIsbn.getIsbn());
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+        Book existingBook = new Book(UUID.randomUUID(), "The Hobbit", author, "978-0345339683");
+        BookRequestDTO requestDTO = new BookRequestDTO("The Hobbit", author.getId(), "978-0000000001");
 
         when(bookRepository.findById(existingBook.getId())).thenReturn(Optional.of(existingBook));
-        when(bookRepository.findByIsbnIgnoreCase(requestDTO.isbn())).thenReturn(Optional.of(anotherBookWithSameIsbn));
+        when(bookRepository.saveAndFlush(existingBook)).thenThrow(violationOf("uk_books_isbn"));
 
         // When & Then
-        assertThrows(DuplicateResourceException.class, () -> bookService.update(existingBook.getId(), requestDTO));
-        verify(bookRepository, never()).save(any());
+        assertThrows(DuplicateResourceException.class, () -> bookService.update(existingBook.getId(), requestDTO, null));
+        verify(authorService, never()).adjustBookCount(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Update: Should throw PreconditionFailedException when If-Match does not match the current versions")
+    void update_whenIfMatchIsStale_shouldThrowPreconditionFailedException() {
+        // Given
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+        author.setVersion(0L);
+        Book existingBook = new Book(UUID.randomUUID(), "The Hobbit", author, "978-0345339683");
+        existingBook.setVersion(3L);
+        BookRequestDTO requestDTO = new BookRequestDTO("The Hobbit", author.getId(), existingBook.getIsbn());
+        when(bookRepository.findById(existingBook.getId())).thenReturn(Optional.of(existingBook));
+
+        // When & Then
+        assertThrows(PreconditionFailedException.class,
+                () -> bookService.update(existingBook.getId(), requestDTO, "\"2.0\""));
+        verify(bookRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -169,15 +300,17 @@ class BookServiceTest {
     void delete_whenBookExists_shouldDeleteBook() {
         // Given
         UUID bookId = UUID.randomUUID();
-        when(bookRepository.existsById(bookId)).thenReturn(true);
-        doNothing().when(bookRepository).deleteById(bookId);
+        UUID authorId = UUID.randomUUID();
+        when(bookRepository.findAuthorIdById(bookId)).thenReturn(Optional.of(authorId));
+        when(bookRepository.removeById(bookId)).thenReturn(1);
 
         // When
         bookService.delete(bookId);
 
         // Then
-        verify(bookRepository, times(1)).existsById(bookId);
-        verify(bookRepository, times(1)).deleteById(bookId);
+        verify(bookRepository, times(1)).removeById(bookId);
+        verify(bookTombstoneRepository, times(1)).insert(bookId);
+        verify(authorService, times(1)).adjustBookCount(authorId, -1);
     }
 
     @Test
@@ -185,11 +318,49 @@ class BookServiceTest {
     void delete_whenBookDoesNotExist_shouldThrowResourceNotFoundException() {
         // Given
         UUID bookId = UUID.randomUUID();
-        when(bookRepository.existsById(bookId)).thenReturn(false);
+        when(bookRepository.findAuthorIdById(bookId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> bookService.delete(bookId));
+        verify(bookRepository, never()).removeById(any());
+        verify(authorService, never()).adjustBookCount(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Delete: Should throw ResourceNotFoundException when the book is deleted concurrently")
+    void delete_whenBookIsDeletedConcurrently_shouldThrowResourceNotFoundException() {
+        // Given
+        UUID bookId = UUID.randomUUID();
+        when(bookRepository.findAuthorIdById(bookId)).thenReturn(Optional.of(UUID.randomUUID()));
+        when(bookRepository.removeById(bookId)).thenReturn(0);
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> bookService.delete(bookId));
-        verify(bookRepository, never()).deleteById(any());
+        verify(bookTombstoneRepository, never()).insert(any());
+        verify(authorService, never()).adjustBookCount(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("FindAllByAuthor: Should page the author's books and take the total from the author's book count")
+    void findAllByAuthor_shouldUseBookCountAsTotal() {
+        // Given
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+        AuthorResponseDTO authorResponse = new AuthorResponseDTO(author.getId(), author.getName(), 0L, 42L);
+        Book book = new Book(UUID.randomUUID(), "The Hobbit", author, "978-0345339683");
+        BookResponseDTO bookResponse = new BookResponseDTO(book.getId(), book.getTitle(), authorResponse, book.getIsbn(), 0L);
+        Pageable pageable = PageRequest.of(0, 1);
+
+        when(authorService.findById(author.getId())).thenReturn(authorResponse);
+        when(bookRepository.findByAuthorId(author.getId(), PageRequest.of(0, 1, Sort.by("id")))).thenReturn(List.of(book));
+        when(bookMapper.toResponse(book, authorResponse)).thenReturn(bookResponse);
+
+        // When
+        Page<BookResponseDTO> page = bookService.findAllByAuthor(author.getId(), pageable);
+
+        // Then
+        assertEquals(List.of(bookResponse), page.getContent());
+        assertEquals(42, page.getTotalElements());
+        verify(bookRepository, never()).count();
     }
 
     @Test
@@ -201,7 +372,7 @@ class BookServiceTest {
         Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
 
         when(bookRepository.findAll(pageable)).thenReturn(bookPage);
-        when(bookMapper.toResponse(any(Book.class))).thenReturn(new BookResponseDTO(book.getId(), book.getTitle(), null, book.getIsbn()));
+        when(bookMapper.toResponse(any(Book.class))).thenReturn(new BookResponseDTO(book.getId(), book.getTitle(), null, book.getIsbn(), 0L));
 
         // When
         Page<BookResponseDTO> actualResponse = bookService.findAll(null, pageable);
@@ -223,7 +394,7 @@ class BookServiceTest {
         Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
 
         when(bookRepository.findByTitleContainingIgnoreCase(titleFilter, pageable)).thenReturn(bookPage);
-        when(bookMapper.toResponse(any(Book.class))).thenReturn(new BookResponseDTO(book.getId(), book.getTitle(), null, book.getIsbn()));
+        when(bookMapper.toResponse(any(Book.class))).thenReturn(new BookResponseDTO(book.getId(), book.getTitle(), null, book.getIsbn(), 0L));
 
         // When
         Page<BookResponseDTO> actualResponse = bookService.findAll(titleFilter, pageable);
@@ -234,4 +405,104 @@ class BookServiceTest {
         verify(bookRepository, never()).findAll(pageable);
         verify(bookRepository, times(1)).findByTitleContainingIgnoreCase(titleFilter, pageable);
     }
+
+    @Test
+    @DisplayName("FindSlice: Should return a slice of books with the estimated total and no count when no title is provided")
+    void findSlice_whenNoTitleProvided_shouldReturnSliceWithEstimatedTotal() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        Author author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+        Book book = new Book(UUID.randomUUID(), "The Hobbit", author, "978-0345339683");
+        BookResponseDTO bookResponse = new BookResponseDTO(book.getId(), book.getTitle(),
+                new AuthorResponseDTO(author.getId(), author.getName(), 0L, null), book.getIsbn(), 0L);
+
+        when(bookRepository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(book), pageable, true));
+        when(bookMapper.toResponse(book)).thenReturn(bookResponse);
+        when(tableStatistics.estimateRowCount(Book.TABLE)).thenReturn(OptionalLong.of(5000));
+
+        // When
+        SliceResponseDTO<BookResponseDTO> response = bookService.findSlice(null, pageable);
+
+        // Then
+        assertEquals(List.of(bookResponse), response.content());
+        assertTrue(response.hasNext());
+        assertEquals(5000L, response.estimatedTotal());
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("FindSlice: Should search without counting the matches and without an estimated total when a title is provided")
+    void findSlice_whenTitleProvided_shouldReturnSliceWithoutEstimatedTotal() {
+        // Given
+        Pageable pageable = PageRequest.of(1, 10);
+        when(bookRepository.findSliceByTitleContainingIgnoreCase("hobbit", pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        // When
+        SliceResponseDTO<BookResponseDTO> response = bookService.findSlice("hobbit", pageable);
+
+        // Then
+        assertEquals(1, response.page());
+        assertFalse(response.hasNext());
+        assertNull(response.estimatedTotal());
+        verify(bookRepository, never()).findByTitleContainingIgnoreCase(any(), any());
+        verifyNoInteractions(tableStatistics);
+    }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should return the first page and a cursor pointing after its last book")
+    void findAllByCursor_whenMoreBooksExist_shouldReturnNextCursor() {
+        // Given
+        Book first = new Book(UUID.randomUUID(), "The Hobbit", new Author(), "978-0345339683");
+        Book second = new Book(UUID.randomUUID(), "The Silmarillion", new Author(), "978-0618391110");
+        Book lookAhead = new Book(UUID.randomUUID(), "Unfinished Tales", new Author(), "978-0618154050");
+
+        when(bookRepository.findByOrderByIdAsc(Limit.of(3))).thenReturn(List.of(first, second, lookAhead));
+        when(bookMapper.toResponse(any(Book.class))).thenAnswer(invocation -> {
+            Book book = invocation.getArgument(0);
+            return new BookResponseDTO(book.getId(), book.getTitle(), null, book.getIsbn(), 0L);
+        });
+
+        // When
+        CursorPageResponseDTO<BookResponseDTO> actualResponse = bookService.findAllByCursor(null, null, 2);
+
+        // Then
+        assertEquals(2, actualResponse.content().size());
+        assertTrue(actualResponse.hasNext());
+        assertEquals(second.getId(), CursorPagination.decode(actualResponse.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should seek after the cursor with the title filter when both are provided")
+    void findAllByCursor_whenCursorAndTitleProvided_shouldSeekFilteredBooks() {
+        // Given
+        UUID lastSeenId = UUID.randomUUID();
+        String cursor = CursorPagination.encode(lastSeenId);
+        Book book = new Book(UUID.randomUUID(), "The Hobbit", new Author(), "978-0345339683");
+
+        when(bookRepository.findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc("Hobbit", lastSeenId, Limit.of(21)))
+                .thenReturn(List.of(book));
+        when(bookMapper.toResponse(book)).thenReturn(new BookResponseDTO(book.getId(), book.getTitle(), null, book.getIsbn(), 0L));
+
+        // When
+        CursorPageResponseDTO<BookResponseDTO> actualResponse = bookService.findAllByCursor("Hobbit", cursor, 20);
+
+        // Then
+        assertEquals(1, actualResponse.content().size());
+        assertFalse(actualResponse.hasNext());
+        assertNull(actualResponse.nextCursor());
+        verify(bookRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    @DisplayName("FindAllByCursor: Should throw InvalidCursorException when the cursor is malformed")
+    void findAllByCursor_whenCursorIsMalformed_shouldThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> bookService.findAllByCursor(null, "not-a-cursor", 20));
+        verifyNoInteractions(bookRepository);
+    }
+
+    private static DataIntegrityViolationException violationOf(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
+    }
 }
@@ -0,0 +1,242 @@
+package com.liras23.library.book.service;
+
+import com.liras23.library.author.Author;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.author.mapper.AuthorMapper;
+import com.liras23.library.author.service.AuthorService;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.mapper.BookMapper;
+import com.liras23.library.common.exception.DuplicateResourceException;
+import com.liras23.library.common.exception.ResourceNotFoundException;
+import com.liras23.library.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookWriteBufferTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private AuthorService authorService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+
+    private Author author;
+    private BookWriteBuffer bookWriteBuffer;
+
+    @BeforeEach
+    void setUp() {
+        author = new Author(UUID.randomUUID(), "J.R.R. Tolkien");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        if (bookWriteBuffer != null) {
+            bookWriteBuffer.destroy();
+        }
+    }
+
+    private BookWriteBuffer bookWriteBuffer(int maxBatchSize, Duration maxWait, int queueCapacity) {
+        return bookWriteBuffer(maxBatchSize, maxWait, queueCapacity, Duration.ofSeconds(5));
+    }
+
+    private BookWriteBuffer bookWriteBuffer(int maxBatchSize, Duration maxWait, int queueCapacity, Duration resultTimeout) {
+        BookMapper bookMapper = new BookMapper(new AuthorMapper());
+        BookChunkWriter bookChunkWriter = new BookChunkWriter(bookRepository, authorRepository, authorService, bookMapper,
+                transactionManager, entityManager, eventPublisher);
+        bookWriteBuffer = new BookWriteBuffer(bookChunkWriter, bookService, meterRegistry, maxBatchSize, maxWait,
+                queueCapacity, Duration.ofMillis(50), resultTimeout);
+        bookWriteBuffer.afterPropertiesSet();
+        return bookWriteBuffer;
+    }
+
+    @Test
+    @DisplayName("Create: Should write concurrent creations in one batch and give each caller its own outcome")
+    void create_whenCallsAreConcurrent_shouldShareOneBatch() throws Exception {
+        // Given
+        BookWriteBuffer buffer = bookWriteBuffer(3, Duration.ofSeconds(5), 10);
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of("978-0000000001"));
+        when(authorRepository.findAllById(anyCollection())).thenReturn(List.of(author));
+        when(bookRepository.saveAllAndFlush(anyCollection())).thenAnswer(invocation -> {
+            Collection<Book> books = invocation.getArgument(0);
+            books.forEach(book -> book.setId(UUID.randomUUID()));
+            return List.copyOf(books);
+        });
+
+        // When
+        Future<BookResponseDTO> created = callers.submit(() ->
+                buffer.create(new BookRequestDTO("The Hobbit", author.getId(), "978-0345339683")));
+        Future<BookResponseDTO> duplicate = callers.submit(() ->
+                buffer.create(new BookRequestDTO("The Silmarillion", author.getId(), "978-0000000001")));
+        Future<BookResponseDTO> unknownAuthor = callers.submit(() ->
+                buffer.create(new BookRequestDTO("Unknown Author", UUID.randomUUID(), "978-0000000002")));
+
+        // Then
+        BookResponseDTO book = created.get(5, TimeUnit.SECONDS);
+        assertNotNull(book.id());
+        assertEquals("The Hobbit", book.title());
+        assertEquals(author.getId(), book.author().id());
+        assertInstanceOf(DuplicateResourceException.class, failure(duplicate));
+        assertInstanceOf(ResourceNotFoundException.class, failure(unknownAuthor));
+        verify(bookRepository, times(1)).saveAllAndFlush(anyCollection());
+        verify(authorService).adjustBookCount(author.getId(), 1L);
+        assertEquals(1, meterRegistry.summary(BookWriteBuffer.METRIC_PREFIX + ".batch.size").count());
+    }
+
+    @Test
+    @DisplayName("Create: Should create the books of a batch one by one when a concurrent write breaks a constraint")
+    void create_whenBatchViolatesConstraint_shouldFallBackToSingleCreates() {
+        // Given
+        BookWriteBuffer buffer = bookWriteBuffer(100, Duration.ZERO, 10);
+        BookRequestDTO request = new BookRequestDTO("The Hobbit", author.getId(), "978-0345339683");
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(authorRepository.findAllById(anyCollection())).thenReturn(List.of(author));
+        when(bookRepository.saveAllAndFlush(anyCollection())).thenThrow(new DataIntegrityViolationException("uk_books_isbn"));
+        when(bookService.create(request)).thenThrow(new DuplicateResourceException("A book with ISBN 978-0345339683 already exists."));
+
+        // When & Then
+        assertThrows(DuplicateResourceException.class, () -> buffer.create(request));
+        verify(bookService).create(request);
+    }
+
+    @Test
+    @DisplayName("Create: Should turn callers away with 503 while the queue is full")
+    void create_whenQueueIsFull_shouldThrowServiceUnavailable() throws Exception {
+        // Given
+        BookWriteBuffer buffer = bookWriteBuffer(1, Duration.ZERO, 1);
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findExistingIsbns(anyCollection())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            return List.of();
+        });
+        when(authorRepository.findAllById(anyCollection())).thenReturn(List.of(author));
+        Future<BookResponseDTO> inFlight = callers.submit(() ->
+                buffer.create(new BookRequestDTO("Book 1", author.getId(), "978-0000000001")));
+        flushing.await(5, TimeUnit.SECONDS);
+        Future<BookResponseDTO> queued = callers.submit(() ->
+                buffer.create(new BookRequestDTO("Book 2", author.getId(), "978-0000000002")));
+        while (meterRegistry.get(BookWriteBuffer.METRIC_PREFIX + ".queued").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // When & Then
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () ->
+                buffer.create(new BookRequestDTO("Book 3", author.getId(), "978-0000000003")));
+        assertEquals(Duration.ofSeconds(1), ex.getRetryAfter());
+        assertEquals(1, meterRegistry.counter(BookWriteBuffer.METRIC_PREFIX + ".rejected").count());
+
+        release.countDown();
+        assertNotNull(inFlight.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+        verify(bookRepository, times(2)).saveAllAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Create: Should answer 503 when the batch is not written within the result timeout")
+    void create_whenBatchIsSlow_shouldThrowServiceUnavailable() {
+        // Given
+        BookWriteBuffer buffer = bookWriteBuffer(1, Duration.ZERO, 10, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findExistingIsbns(anyCollection())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+
+        // When & Then
+        try {
+            assertThrows(ServiceUnavailableException.class, () ->
+                    buffer.create(new BookRequestDTO("The Hobbit", author.getId(), "978-0345339683")));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Create: Should turn queued and later callers away with 503 when the flusher dies")
+    void create_whenFlusherDies_shouldThrowServiceUnavailable() throws Exception {
+        // Given
+        BookWriteBuffer buffer = bookWriteBuffer(1, Duration.ZERO, 10);
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findExistingIsbns(anyCollection())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await();
+            throw new StackOverflowError("flusher died");
+        });
+        Future<BookResponseDTO> inFlight = callers.submit(() ->
+                buffer.create(new BookRequestDTO("Book 1", author.getId(), "978-0000000001")));
+        flushing.await(5, TimeUnit.SECONDS);
+        Future<BookResponseDTO> queued = callers.submit(() ->
+                buffer.create(new BookRequestDTO("Book 2", author.getId(), "978-0000000002")));
+        while (meterRegistry.get(BookWriteBuffer.METRIC_PREFIX + ".queued").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // When
+        release.countDown();
+
+        // Then
+        assertInstanceOf(ServiceUnavailableException.class, failure(inFlight));
+        assertInstanceOf(ServiceUnavailableException.class, failure(queued));
+        assertThrows(ServiceUnavailableException.class, () ->
+                buffer.create(new BookRequestDTO("Book 3", author.getId(), "978-0000000003")));
+    }
+
+    private static Throwable failure(Future<?> future) {
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return ex.getCause();
+    }
+}
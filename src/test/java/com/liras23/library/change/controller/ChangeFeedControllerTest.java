@@ -0,0 +1,183 @@
+package com.liras23.library.change.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.change.service.ChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The feed only sees committed writes and streams over a real connection, so the writes go through the API
+ * of the embedded Tomcat and are deleted after every test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ChangeFeedControllerTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private final List<InputStream> streams = new ArrayList<>();
+
+    private record Event(String id, String name, String data) {
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (InputStream stream : streams) {
+            stream.close();
+        }
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Change feed: Should push committed creations, updates and deletions")
+    void stream_shouldPushCommittedChanges() throws Exception {
+        BufferedReader events = subscribe(null);
+
+        JsonNode author = post("/api/authors", "{\"name\": \"J.R.R. Tolkien\"}");
+        String authorId = author.get("id").asText();
+        JsonNode book = post("/api/books",
+                "{\"title\": \"The Hobbit\", \"authorId\": \"" + authorId + "\", \"isbn\": \"978-0345339683\"}");
+        send(HttpRequest.newBuilder(uri("/api/books/" + book.get("id").asText())).DELETE());
+
+        JsonNode authorCreated = objectMapper.readTree(next(events).data());
+        assertEquals("AUTHOR", authorCreated.get("resource").asText());
+        assertEquals("CREATED", authorCreated.get("type").asText());
+        assertEquals(authorId, authorCreated.get("id").asText());
+        assertEquals("J.R.R. Tolkien", authorCreated.get("data").get("name").asText());
+
+        Event bookCreated = next(events);
+        assertEquals(ChangeFeed.CHANGE_EVENT, bookCreated.name());
+        assertEquals("The Hobbit", objectMapper.readTree(bookCreated.data()).get("data").get("title").asText());
+
+        JsonNode bookDeleted = objectMapper.readTree(next(events).data());
+        assertEquals("DELETED", bookDeleted.get("type").asText());
+        assertEquals(book.get("id").asText(), bookDeleted.get("id").asText());
+        assertTrue(bookDeleted.get("data").isNull());
+    }
+
+    @Test
+    @DisplayName("Change feed: Should replay the changes after Last-Event-ID on reconnection")
+    void stream_whenLastEventIdIsSent_shouldResumeAfterIt() throws Exception {
+        BufferedReader events = subscribe(null);
+        post("/api/authors", "{\"name\": \"Ursula K. Le Guin\"}");
+        Event first = next(events);
+        post("/api/authors", "{\"name\": \"Octavia E. Butler\"}");
+        post("/api/authors", "{\"name\": \"Ted Chiang\"}");
+
+        BufferedReader resumed = subscribe(first.id());
+
+        assertEquals("Octavia E. Butler", objectMapper.readTree(next(resumed).data()).get("data").get("name").asText());
+        assertEquals("Ted Chiang", objectMapper.readTree(next(resumed).data()).get("data").get("name").asText());
+    }
+
+    @Test
+    @DisplayName("Change feed: Should send a reset event when the changes after Last-Event-ID are not available")
+    void stream_whenLastEventIdIsUnknown_shouldSendReset() throws Exception {
+        BufferedReader events = subscribe("0-42");
+
+        Event reset = next(events);
+
+        assertEquals(ChangeFeed.RESET_EVENT, reset.name());
+        assertNotNull(reset.id());
+    }
+
+    private BufferedReader subscribe(String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri("/api/changes"))
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET();
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse("").startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        streams.add(response.body());
+        return new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the next event, skipping heartbeat comments, and fails after a few seconds without one.
+     */
+    private static Event next(BufferedReader reader) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                String id = null;
+                String name = null;
+                StringBuilder data = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        if (name != null || !data.isEmpty()) {
+                            return new Event(id, name, data.toString());
+                        }
+                    } else if (line.startsWith("id:")) {
+                        id = line.substring(3);
+                    } else if (line.startsWith("event:")) {
+                        name = line.substring(6);
+                    } else if (line.startsWith("data:")) {
+                        data.append(line.substring(5));
+                    }
+                }
+                throw new IllegalStateException("Stream ended");
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }).get(Duration.ofSeconds(5).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private JsonNode post(String path, String json) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri(path))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(json)));
+        assertEquals(201, response.statusCode());
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,168 @@
+package com.liras23.library.common.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.author.dto.AuthorRequestDTO;
+import com.liras23.library.author.dto.AuthorResponseDTO;
+import com.liras23.library.author.service.AuthorService;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.dto.BookRequestDTO;
+import com.liras23.library.book.dto.BookResponseDTO;
+import com.liras23.library.book.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cached entries only become visible to other callers once the surrounding transaction commits, so this
+ * test commits its data instead of relying on a rolled-back test transaction, and cleans up afterwards.
+ */
+@SpringBootTest
+class CacheConfigTest {
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clearCaches();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        clearCaches();
+    }
+
+    @Test
+    @DisplayName("Cache: Should serve repeated author lookups from the cache and record the hits")
+    void findById_whenCalledTwice_shouldHitTheCache() {
+        // Given
+        AuthorResponseDTO author = authorService.create(new AuthorRequestDTO("George Orwell"));
+        CacheStats before = stats(CacheConfig.AUTHORS_CACHE);
+
+        // When
+        authorService.findById(author.id());
+        authorService.findById(author.id());
+
+        // Then
+        CacheStats after = stats(CacheConfig.AUTHORS_CACHE);
+        assertEquals(1, after.missCount() - before.missCount());
+        assertEquals(1, after.hitCount() - before.hitCount());
+    }
+
+    @Test
+    @DisplayName("Cache: Should evict the author and the books embedding it when the author is updated")
+    void update_whenAuthorChanges_shouldEvictCachedAuthorAndBooks() {
+        // Given
+        AuthorResponseDTO author = authorService.create(new AuthorRequestDTO("Eric Blair"));
+        BookResponseDTO book = bookService.create(new BookRequestDTO("1984", author.id(), "978-0451524935"));
+        bookService.findById(book.id());
+
+        // When
+        authorService.update(author.id(), new AuthorRequestDTO("George Orwell"), null);
+
+        // Then
+        assertEquals("George Orwell", authorService.findById(author.id()).name());
+        assertEquals("George Orwell", bookService.findById(book.id()).author().name());
+    }
+
+    @Test
+    @DisplayName("Cache: Should evict a cached book when it is updated")
+    void update_whenBookChanges_shouldEvictCachedBook() {
+        // Given
+        AuthorResponseDTO author = authorService.create(new AuthorRequestDTO("J.R.R. Tolkien"));
+        BookResponseDTO book = bookService.create(new BookRequestDTO("The Hobbit", author.id(), "978-0345339683"));
+        bookService.findById(book.id());
+
+        // When
+        bookService.update(book.id(), new BookRequestDTO("The Hobbit, or There and Back Again", author.id(), book.isbn()), null);
+
+        // Then
+        assertEquals("The Hobbit, or There and Back Again", bookService.findById(book.id()).title());
+    }
+
+    @Test
+    @DisplayName("Cache: Should serve a repeated search from the cache whatever the case of the filter")
+    void findAll_whenSearchIsRepeated_shouldHitTheCache() {
+        // Given
+        AuthorResponseDTO author = authorService.create(new AuthorRequestDTO("J.R.R. Tolkien"));
+        bookService.create(new BookRequestDTO("The Hobbit", author.id(), "978-0345339683"));
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("title"));
+        CacheStats before = stats(CacheConfig.BOOK_SEARCHES_CACHE);
+
+        // When
+        bookService.findAll("hobbit", pageable);
+        bookService.findAll("HOBBIT", PageRequest.of(0, 10, Sort.by("title")));
+        bookService.findAll("hobbit", PageRequest.of(1, 10, Sort.by("title")));
+
+        // Then
+        CacheStats after = stats(CacheConfig.BOOK_SEARCHES_CACHE);
+        assertEquals(2, after.missCount() - before.missCount());
+        assertEquals(1, after.hitCount() - before.hitCount());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", CacheConfig.BOOK_SEARCHES_CACHE)
+                .tag("result", "hit").functionCounter().count() - before.hitCount());
+    }
+
+    @Test
+    @DisplayName("Cache: Should drop cached searches when a book or an author is written")
+    void findAll_whenCatalogChanges_shouldNotServeStalePages() {
+        // Given
+        AuthorResponseDTO author = authorService.create(new AuthorRequestDTO("Eric Blair"));
+        BookResponseDTO book = bookService.create(new BookRequestDTO("1984", author.id(), "978-0451524935"));
+        Pageable pageable = PageRequest.of(0, 10);
+        bookService.findAll(null, pageable);
+        authorService.findAll("blair", pageable);
+
+        // When
+        bookService.create(new BookRequestDTO("Animal Farm", author.id(), "978-0451526342"));
+        authorService.update(author.id(), new AuthorRequestDTO("George Orwell (Eric Blair)"), null);
+
+        // Then
+        assertEquals(2, bookService.findAll(null, pageable).getTotalElements());
+        assertEquals("George Orwell (Eric Blair)", bookService.findAll(null, pageable).getContent().get(0).author().name());
+        assertEquals(2L, authorService.findAll("blair", pageable).getContent().get(0).bookCount());
+        assertEquals(book.id(), bookService.findAll("1984", pageable).getContent().get(0).id());
+    }
+
+    private void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private CacheStats stats(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        return ((CaffeineCache) cache).getNativeCache().stats();
+    }
+}
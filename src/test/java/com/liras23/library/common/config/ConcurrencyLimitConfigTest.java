@@ -0,0 +1,61 @@
+package com.liras23.library.common.config;
+
+import com.liras23.library.common.web.AdaptiveConcurrencyLimit;
+import com.liras23.library.common.web.ConcurrencyLimitInterceptor;
+import com.liras23.library.common.web.ConcurrencyLimitInterceptor.Workload;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class ConcurrencyLimitConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("ConcurrencyLimit: Should answer 503 with Retry-After once the search limit is taken, and keep serving reads")
+    void search_whenLimitIsReached_shouldRejectOnlySearches() throws Exception {
+        // Given: every search slot taken and never given back; the context, with its limits, is discarded
+        // after this class instead of feeding the limit made-up latencies
+        AdaptiveConcurrencyLimit searchLimit = concurrencyLimitInterceptor.getLimit(Workload.SEARCH);
+        while (searchLimit.tryAcquire()) {
+            // Requests that stay in flight
+        }
+
+        // When / Then
+        mockMvc.perform(get("/api/books"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/api/books/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitInterceptor.METRIC_PREFIX + ".rejected")
+                .tag("workload", "search").counter().count(), 0.0);
+        assertNotNull(meterRegistry.get(ConcurrencyLimitInterceptor.METRIC_PREFIX + ".limit")
+                .tag("workload", "search").gauge());
+    }
+}
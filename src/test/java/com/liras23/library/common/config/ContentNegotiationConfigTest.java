@@ -0,0 +1,168 @@
+package com.liras23.library.common.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.liras23.library.author.Author;
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.author.dto.AuthorRequestDTO;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.dto.BookResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Content negotiation and compression happen in the web server, so these requests go over HTTP to the
+ * embedded Tomcat instead of through MockMvc. The data is committed and deleted after every test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ContentNegotiationConfigTest {
+
+    private static final int BOOKS = 50;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private Book firstBook;
+
+    @BeforeEach
+    void setUp() {
+        Author author = authorRepository.save(new Author(null, "J.R.R. Tolkien"));
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(new Book(null, "The Lord of the Rings, volume " + i, author, "978-" + String.format("%010d", i)));
+        }
+        firstBook = bookRepository.saveAll(books).get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Content negotiation: Should encode the page wrapper and its books in CBOR when asked for")
+    void findAll_whenAcceptIsCbor_shouldReturnCborPage() throws Exception {
+        HttpResponse<byte[]> response = send(get("/api/books?size=" + BOOKS)
+                .header(HttpHeaders.ACCEPT, ContentNegotiationConfig.CBOR_VALUE));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(ContentNegotiationConfig.CBOR_VALUE, contentType(response));
+        JsonNode page = cborMapper.readTree(response.body());
+        assertEquals(BOOKS, page.get("content").size());
+        assertEquals(BOOKS, page.get("totalElements").asInt());
+        assertTrue(page.get("content").get(0).get("title").asText().startsWith("The Lord of the Rings"));
+    }
+
+    @Test
+    @DisplayName("Content negotiation: Should encode a single book in Smile when asked for")
+    void findById_whenAcceptIsSmile_shouldReturnSmileBook() throws Exception {
+        HttpResponse<byte[]> response = send(get("/api/books/" + firstBook.getId())
+                .header(HttpHeaders.ACCEPT, ContentNegotiationConfig.SMILE_VALUE));
+
+        assertEquals(200, response.statusCode());
+        assertEquals(ContentNegotiationConfig.SMILE_VALUE, contentType(response));
+        BookResponseDTO book = smileMapper.readValue(response.body(), BookResponseDTO.class);
+        assertEquals(firstBook.getId(), book.id());
+        assertEquals("J.R.R. Tolkien", book.author().name());
+    }
+
+    @Test
+    @DisplayName("Content negotiation: Should read CBOR request bodies and encode errors in the requested format")
+    void create_whenBodyIsCbor_shouldCreateAndAnswerInCbor() throws Exception {
+        HttpResponse<byte[]> created = send(HttpRequest.newBuilder(uri("/api/authors"))
+                .header(HttpHeaders.CONTENT_TYPE, ContentNegotiationConfig.CBOR_VALUE)
+                .header(HttpHeaders.ACCEPT, ContentNegotiationConfig.CBOR_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(cborMapper.writeValueAsBytes(new AuthorRequestDTO("Ursula K. Le Guin")))));
+
+        assertEquals(201, created.statusCode());
+        assertEquals("Ursula K. Le Guin", cborMapper.readTree(created.body()).get("name").asText());
+
+        HttpResponse<byte[]> notFound = send(get("/api/books/" + UUID.randomUUID())
+                .header(HttpHeaders.ACCEPT, ContentNegotiationConfig.CBOR_VALUE));
+
+        assertEquals(404, notFound.statusCode());
+        assertTrue(cborMapper.readTree(notFound.body()).get("error").asText().startsWith("Book not found"));
+    }
+
+    @Test
+    @DisplayName("Compression: Should gzip large responses for clients that accept it")
+    void findAll_whenGzipIsAccepted_shouldCompressLargePages() throws Exception {
+        HttpResponse<byte[]> response = send(get("/api/books?size=" + BOOKS)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        JsonNode page = objectMapper.readTree(gunzip(response.body()));
+        assertEquals(BOOKS, page.get("content").size());
+    }
+
+    @Test
+    @DisplayName("Compression: Should leave small responses uncompressed")
+    void findById_whenGzipIsAccepted_shouldNotCompressSmallBodies() throws Exception {
+        HttpResponse<byte[]> response = send(get("/api/books/" + firstBook.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertEquals(firstBook.getTitle(), objectMapper.readTree(response.body()).get("title").asText());
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String contentType(HttpResponse<?> response) {
+        return response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null);
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
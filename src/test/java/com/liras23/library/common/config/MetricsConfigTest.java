@@ -0,0 +1,51 @@
+package com.liras23.library.common.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Metrics export is disabled in Spring Boot tests unless explicitly requested, hence
+ * {@link AutoConfigureObservability}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Metrics: Should publish route, service, connection pool and Hibernate metrics for Prometheus")
+    void prometheus_afterRequests_shouldExposeLatencyHistograms() throws Exception {
+        // Given
+        mockMvc.perform(get("/api/books")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/authors/{id}", UUID.randomUUID())).andExpect(status().isNotFound());
+
+        // When / Then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("uri=\"/api/authors/{id}\""),
+                        containsString("library_service_seconds_bucket{"),
+                        containsString("method=\"findAll\""),
+                        containsString("exception=\"ResourceNotFoundException\""),
+                        containsString("hikaricp_connections_acquire_seconds_bucket{"),
+                        containsString("hibernate_statements_total"),
+                        containsString("cache_gets_total"))));
+    }
+}
@@ -0,0 +1,97 @@
+package com.liras23.library.common.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against three separate in-memory H2 databases: the embedded primary and two replicas. Each
+ * transaction reports the URL of the database its connection belongs to.
+ */
+@SpringBootTest(properties = "library.datasource.replicas.urls="
+        + "jdbc:h2:mem:replica-a;DB_CLOSE_DELAY=-1,jdbc:h2:mem:replica-b;DB_CLOSE_DELAY=-1")
+class ReadReplicaConfigTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Replicas: Should run read-only transactions on the replicas, alternating between them")
+    void readOnlyTransactions_shouldBeRoutedToReplicas() {
+        // Given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Set<String> urls = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            urls.add(readOnly.execute(status -> databaseUrl()));
+        }
+
+        // Then
+        assertEquals(Set.of("jdbc:h2:mem:replica-a", "jdbc:h2:mem:replica-b"), urls);
+    }
+
+    @Test
+    @DisplayName("Replicas: Should keep read-write transactions on the primary")
+    void readWriteTransactions_shouldStayOnPrimary() {
+        // When
+        String url = new TransactionTemplate(transactionManager).execute(status -> databaseUrl());
+
+        // Then
+        assertFalse(url.contains("replica"), url);
+        assertTrue(url.startsWith("jdbc:h2:mem:"), url);
+    }
+
+    @Test
+    @DisplayName("Replicas: Should close the primary and replica pools when the context shuts down")
+    void close_shouldCloseEveryPool() {
+        // Given
+        List<HikariDataSource> pools = new ArrayList<>();
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withUserConfiguration(ReadReplicaConfig.class)
+                .withBean(DataSourceProperties.class, () -> {
+                    DataSourceProperties properties = new DataSourceProperties();
+                    properties.setUrl("jdbc:h2:mem:shutdown-primary");
+                    return properties;
+                })
+                .withPropertyValues("library.datasource.replicas.urls=jdbc:h2:mem:shutdown-replica");
+
+        // When
+        contextRunner.run(context -> {
+            pools.addAll(context.getBean(ReadReplicaConfig.class).getPools());
+            assertTrue(pools.stream().noneMatch(HikariDataSource::isClosed));
+        });
+
+        // Then
+        assertEquals(2, pools.size());
+        assertTrue(pools.stream().allMatch(HikariDataSource::isClosed));
+    }
+
+    private String databaseUrl() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+    }
+}
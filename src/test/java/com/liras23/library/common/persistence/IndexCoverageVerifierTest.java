@@ -0,0 +1,80 @@
+package com.liras23.library.common.persistence;
+
+import com.liras23.library.author.AuthorRepository;
+import com.liras23.library.book.Book;
+import com.liras23.library.book.BookRepository;
+import com.liras23.library.book.BookTombstoneRepository;
+import com.liras23.library.common.persistence.IndexCoverageVerifier.Index;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.repository.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexCoverageVerifierTest {
+
+    /** The indexes of the PostgreSQL migrations, as the catalog reports them. */
+    private static final List<Index> MIGRATED_INDEXES = List.of(
+            new Index("authors", "btree", "uuid_ops", "id"),
+            new Index("authors", "btree", "text_ops", "name"),
+            new Index("authors", "gin", "gin_trgm_ops", "upper(name::text)"),
+            new Index("books", "btree", "uuid_ops", "id"),
+            new Index("books", "btree", "text_ops", "upper(isbn::text)"),
+            new Index("books", "btree", "uuid_ops", "author_id"),
+            new Index("books", "btree", "text_ops", "title"),
+            new Index("books", "gin", "gin_trgm_ops", "upper(title::text)"),
+            new Index("books", "btree", "timestamptz_ops", "updated_at"),
+            new Index("authors", "btree", "timestamptz_ops", "updated_at"),
+            new Index("book_tombstones", "btree", "uuid_ops", "id"),
+            new Index("book_tombstones", "btree", "timestamptz_ops", "deleted_at")
+    );
+
+    /** A repository with a finder nobody mapped to an index. */
+    private interface ShelfRepository extends Repository<Book, UUID> {
+
+        List<Book> findByTitleStartingWith(String prefix);
+    }
+
+    @Test
+    @DisplayName("IndexCoverage: Should name the index of every repository query method")
+    void findUnmapped_whenRepositoriesAreMapped_shouldReturnNothing() {
+        assertEquals(List.of(), IndexCoverageVerifier.findUnmapped(
+                List.of(BookRepository.class, BookTombstoneRepository.class, AuthorRepository.class)));
+    }
+
+    @Test
+    @DisplayName("IndexCoverage: Should report a query method with no index mapped and no full scan declared")
+    void findUnmapped_whenFinderIsNotMapped_shouldReportIt() {
+        assertEquals(List.of("ShelfRepository.findByTitleStartingWith"),
+                IndexCoverageVerifier.findUnmapped(List.of(BookRepository.class, ShelfRepository.class)));
+    }
+
+    @Test
+    @DisplayName("IndexCoverage: Should find every repository query covered by the migrated indexes")
+    void findUncovered_whenAllMigratedIndexesExist_shouldReturnNothing() {
+        assertEquals(List.of(), IndexCoverageVerifier.findUncovered(MIGRATED_INDEXES));
+    }
+
+    @Test
+    @DisplayName("IndexCoverage: Should report the queries of a missing index, and not accept a btree for a trigram search")
+    void findUncovered_whenTrigramIndexIsMissing_shouldReportTitleSearches() {
+        // Given
+        List<Index> indexes = new ArrayList<>(MIGRATED_INDEXES);
+        indexes.remove(new Index("books", "gin", "gin_trgm_ops", "upper(title::text)"));
+        indexes.add(new Index("books", "btree", "text_ops", "upper(title::text)"));
+
+        // When
+        List<String> uncovered = IndexCoverageVerifier.findUncovered(indexes);
+
+        // Then
+        assertEquals(List.of(
+                "BookRepository.findByTitleContainingIgnoreCase",
+                "BookRepository.findSliceByTitleContainingIgnoreCase",
+                "BookRepository.findByTitleContainingIgnoreCaseOrderByIdAsc",
+                "BookRepository.findByTitleContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc"), uncovered);
+    }
+}
@@ -0,0 +1,95 @@
+package com.liras23.library.common.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs PostgreSQL migrations against tables in the shapes that {@code ddl-auto=update} left behind before
+ * the schema was migrated, on an H2 database in PostgreSQL mode. Only migrations written in SQL that H2
+ * also understands are covered here.
+ */
+class LegacySchemaUpgradeTest {
+
+    private static final String MIGRATIONS = "db/migration/postgresql/";
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    @DisplayName("Migrations: Should count the existing books of authors whose book count was added at 0")
+    void addAuthorBookCount_whenColumnExistsAtZero_shouldBackfillCounts() {
+        // Given: the column as the bookCount entity field added it, before any count was maintained
+        jdbcTemplate.execute("CREATE TABLE authors (id uuid PRIMARY KEY, name varchar(255), "
+                + "version bigint DEFAULT 0 NOT NULL, book_count bigint DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE books (id uuid PRIMARY KEY, title varchar(255) NOT NULL, "
+                + "author_id uuid NOT NULL, isbn varchar(255) NOT NULL, version bigint DEFAULT 0 NOT NULL)");
+        UUID tolkien = insertAuthor("J.R.R. Tolkien");
+        UUID lewis = insertAuthor("C.S. Lewis");
+        insertBook(tolkien, "978-0345339683");
+        insertBook(tolkien, "978-0618391110");
+
+        // When
+        migrate("V2__add_author_book_count.sql");
+
+        // Then
+        assertEquals(2L, bookCount(tolkien));
+        assertEquals(0L, bookCount(lewis));
+    }
+
+    @Test
+    @DisplayName("Migrations: Should add the version columns to tables created before they existed")
+    void addMissingVersionColumns_whenTablesPredateVersions_shouldAddThemAtZero() {
+        // Given: the tables as ddl-auto=update first created them, before the entities had @Version
+        jdbcTemplate.execute("CREATE TABLE authors (id uuid PRIMARY KEY, name varchar(255))");
+        jdbcTemplate.execute("CREATE TABLE books (id uuid PRIMARY KEY, title varchar(255) NOT NULL, "
+                + "author_id uuid NOT NULL, isbn varchar(255) NOT NULL)");
+        UUID tolkien = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO authors (id, name) VALUES (?, ?)", tolkien, "J.R.R. Tolkien");
+        jdbcTemplate.update("INSERT INTO books (id, title, author_id, isbn) VALUES (?, ?, ?, ?)",
+                UUID.randomUUID(), "The Hobbit", tolkien, "978-0345339683");
+
+        // When
+        migrate("V1__create_tables.sql");
+        migrate("V5__add_missing_version_columns.sql");
+
+        // Then
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM authors", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM books", Long.class));
+    }
+
+    private UUID insertAuthor(String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO authors (id, name) VALUES (?, ?)", id, name);
+        return id;
+    }
+
+    private void insertBook(UUID authorId, String isbn) {
+        jdbcTemplate.update("INSERT INTO books (id, title, author_id, isbn) VALUES (?, ?, ?, ?)",
+                UUID.randomUUID(), "Title " + isbn, authorId, isbn);
+    }
+
+    private long bookCount(UUID authorId) {
+        return jdbcTemplate.queryForObject("SELECT book_count FROM authors WHERE id = ?", Long.class, authorId);
+    }
+
+    private void migrate(String migration) {
+        new ResourceDatabasePopulator(new ClassPathResource(MIGRATIONS + migration)).execute(dataSource);
+    }
+}
@@ -0,0 +1,121 @@
+package com.liras23.library.common.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource firstReplica;
+
+    @Mock
+    private DataSource secondReplica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstConnection;
+
+    @Mock
+    private Connection secondConnection;
+
+    private ReplicaDataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        replicaDataSource = new ReplicaDataSource(primary, List.of(firstReplica, secondReplica), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("ReplicaDataSource: Should spread connections across the replicas, round-robin")
+    void getConnection_whenReplicasAreUp_shouldAlternateBetweenThem() throws SQLException {
+        // Given
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+
+        // When / Then
+        assertSame(firstConnection, replicaDataSource.getConnection());
+        assertSame(secondConnection, replicaDataSource.getConnection());
+        assertSame(firstConnection, replicaDataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("ReplicaDataSource: Should skip a replica that is down until its retry delay has passed")
+    void getConnection_whenReplicaIsDown_shouldUseTheOtherReplica() throws SQLException {
+        // Given
+        when(firstReplica.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+
+        // When / Then
+        assertSame(secondConnection, replicaDataSource.getConnection());
+        assertSame(secondConnection, replicaDataSource.getConnection());
+        assertSame(secondConnection, replicaDataSource.getConnection());
+        verify(firstReplica, times(1)).getConnection();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("ReplicaDataSource: Should fall back to the primary when every replica is down")
+    void getConnection_whenAllReplicasAreDown_shouldUsePrimary() throws SQLException {
+        // Given
+        when(firstReplica.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+        when(secondReplica.getConnection()).thenThrow(new SQLTransientConnectionException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // When / Then
+        assertSame(primaryConnection, replicaDataSource.getConnection());
+        assertSame(primaryConnection, replicaDataSource.getConnection());
+        verify(firstReplica, times(1)).getConnection();
+        verify(secondReplica, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("ReplicaDataSource: Should pass explicit credentials on to the replica")
+    void getConnectionWithCredentials_shouldDelegateToReplica() throws SQLException {
+        // Given
+        when(firstReplica.getConnection("reporting", "secret")).thenReturn(firstConnection);
+
+        // When / Then
+        assertSame(firstConnection, replicaDataSource.getConnection("reporting", "secret"));
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("ReplicaDataSource: Should rethrow an unsupported credentials call without marking the replica down")
+    void getConnectionWithCredentials_whenNotSupported_shouldRethrowAndKeepReplica() throws SQLException {
+        // Given
+        when(firstReplica.getConnection("reporting", "secret"))
+                .thenThrow(new SQLFeatureNotSupportedException("Credentials are fixed"));
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+
+        // When / Then
+        assertThrows(SQLFeatureNotSupportedException.class,
+                () -> replicaDataSource.getConnection("reporting", "secret"));
+        assertSame(secondConnection, replicaDataSource.getConnection());
+        assertSame(firstConnection, replicaDataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+}
@@ -0,0 +1,29 @@
+package com.liras23.library.common.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The application runs with {@code ddl-auto=none}; here Hibernate validates the entities against the
+ * schema built by the migrations, so the two cannot drift apart unnoticed.
+ */
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Schema: Should build a schema the entities validate against, with every migration applied")
+    void migrations_shouldMatchEntities() {
+        Integer failed = jdbcTemplate.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"success\" = false", Integer.class);
+
+        assertEquals(0, failed);
+    }
+}
@@ -0,0 +1,50 @@
+package com.liras23.library.common.persistence;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("UuidV7: Should generate version 7, RFC 9562 variant ids carrying the current time")
+    void next_shouldGenerateVersion7Ids() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID id = UuidV7Generator.next();
+
+        // Then
+        long after = System.currentTimeMillis();
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(timestamp >= before, "timestamp " + timestamp + " is before " + before);
+        assertTrue(timestamp <= after + 1, "timestamp " + timestamp + " is after " + after);
+    }
+
+    @Test
+    @DisplayName("UuidV7: Should generate strictly increasing ids, even within the same millisecond")
+    void next_whenCalledRepeatedly_shouldBeStrictlyIncreasing() {
+        // Given
+        List<UUID> ids = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(), ids.get(i).getMostSignificantBits()) < 0,
+                    ids.get(i - 1) + " is not before " + ids.get(i));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.liras23.library.common.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(100).toNanos();
+
+    @Test
+    @DisplayName("ConcurrencyLimit: Should turn requests away once the limit is in flight and admit them again on release")
+    void tryAcquire_whenLimitIsInFlight_shouldRejectUntilRelease() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 1.5);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+
+        // When & Then
+        assertFalse(limit.tryAcquire());
+        limit.release(FAST, false);
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    @DisplayName("ConcurrencyLimit: Should raise the limit while busy and latency stays flat, up to the maximum")
+    void release_whenLatencyIsSteady_shouldGrowToMax() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 50, 1.5);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            completeOneUnderLoad(limit, FAST);
+        }
+
+        // Then
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("ConcurrencyLimit: Should treat zero latencies as flat instead of losing the limit")
+    void release_whenLatencyIsZero_shouldKeepGrowing() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 50, 1.5);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            completeOneUnderLoad(limit, 0);
+        }
+
+        // Then
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    @DisplayName("ConcurrencyLimit: Should lower the limit when latency rises above its usual value")
+    void release_whenLatencyRises_shouldShrinkLimit() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 5, 50, 1.5);
+        for (int i = 0; i < 100; i++) {
+            completeOneUnderLoad(limit, FAST);
+        }
+        assertEquals(50, limit.getLimit());
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            completeOneUnderLoad(limit, SLOW);
+        }
+
+        // Then
+        assertTrue(limit.getLimit() < 25, "limit " + limit.getLimit() + " was not even halved");
+    }
+
+    @Test
+    @DisplayName("ConcurrencyLimit: Should lower the limit when requests fail, and keep it while idle")
+    void release_whenRequestFails_shouldShrinkLimit() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 5, 50, 1.5);
+
+        // When
+        limit.tryAcquire();
+        limit.release(FAST, true);
+        int afterFailure = limit.getLimit();
+        limit.tryAcquire();
+        limit.release(FAST, false);
+
+        // Then
+        assertEquals(18, afterFailure);
+        assertEquals(18, limit.getLimit());
+    }
+
+    /**
+     * Fills the limit, then completes one request, so the limit is fully in use when it adapts.
+     */
+    private static void completeOneUnderLoad(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+        while (limit.tryAcquire()) {
+            // Requests that stay in flight
+        }
+        limit.release(latencyNanos, false);
+    }
+}
@@ -0,0 +1,133 @@
+package com.liras23.library.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds a catalog through the public API: one author per {@value #BOOKS_PER_AUTHOR} books, and the
+ * books through the bulk import endpoint, or one by one on a stack without it. Titles are built from {@link #WORDS} so that title searches
+ * find matches.
+ */
+final class CatalogSeeder {
+
+    static final List<String> WORDS = List.of(
+            "river", "shadow", "garden", "empire", "winter", "silent", "glass", "harbor", "iron", "crown",
+            "forest", "letter", "mirror", "storm", "valley", "ember", "orchard", "tower", "voyage", "whisper");
+
+    private static final int BOOKS_PER_AUTHOR = 10;
+    private static final int BATCH_SIZE = 1000;
+
+    record SeededBook(UUID id, UUID authorId, String isbn) {
+    }
+
+    record Catalog(List<UUID> authorIds, List<SeededBook> books) {
+
+        UUID randomAuthorId() {
+            return authorIds.get(ThreadLocalRandom.current().nextInt(authorIds.size()));
+        }
+
+        SeededBook randomBook() {
+            return books.get(ThreadLocalRandom.current().nextInt(books.size()));
+        }
+    }
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final boolean bulkImport;
+    // ISBNs carry a per-run prefix, so seeding the same database twice does not conflict.
+    private final String run = Integer.toHexString(ThreadLocalRandom.current().nextInt(0x100000, 0x1000000));
+    private final AtomicLong sequence = new AtomicLong();
+
+    CatalogSeeder(HttpClient client, String baseUrl) {
+        this(client, baseUrl, true);
+    }
+
+    CatalogSeeder(HttpClient client, String baseUrl, boolean bulkImport) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.bulkImport = bulkImport;
+    }
+
+    Catalog seed(int books) throws IOException, InterruptedException {
+        List<UUID> authorIds = createAuthors(Math.max(1, books / BOOKS_PER_AUTHOR));
+        return new Catalog(authorIds, createBooks(books, authorIds));
+    }
+
+    List<UUID> createAuthors(int count) throws IOException, InterruptedException {
+        List<UUID> authorIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            JsonNode author = post("/api/authors", Map.of("name", "Author " + run + " " + sequence.incrementAndGet()));
+            authorIds.add(UUID.fromString(author.get("id").asText()));
+        }
+        return authorIds;
+    }
+
+    List<SeededBook> createBooks(int count, List<UUID> authorIds) throws IOException, InterruptedException {
+        List<SeededBook> books = new ArrayList<>(count);
+        if (!bulkImport) {
+            for (int i = 0; i < count; i++) {
+                Map<String, Object> request = bookRequest(authorIds.get(i % authorIds.size()));
+                JsonNode book = post("/api/books", request);
+                books.add(new SeededBook(UUID.fromString(book.get("id").asText()),
+                        (UUID) request.get("authorId"), (String) request.get("isbn")));
+            }
+            return books;
+        }
+        List<Map<String, Object>> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            batch.add(bookRequest(authorIds.get(i % authorIds.size())));
+            if (batch.size() == BATCH_SIZE || i == count - 1) {
+                JsonNode results = post("/api/books/batch", batch).get("results");
+                for (int row = 0; row < batch.size(); row++) {
+                    JsonNode result = results.get(row);
+                    if (result.hasNonNull("id")) {
+                        books.add(new SeededBook(UUID.fromString(result.get("id").asText()),
+                                (UUID) batch.get(row).get("authorId"), (String) batch.get(row).get("isbn")));
+                    }
+                }
+                batch.clear();
+            }
+        }
+        if (books.size() != count) {
+            throw new IllegalStateException("Seeded " + books.size() + " of " + count + " books");
+        }
+        return books;
+    }
+
+    /**
+     * Builds the body of a new, not yet used book for the given author.
+     */
+    Map<String, Object> bookRequest(UUID authorId) {
+        long index = sequence.incrementAndGet();
+        return Map.of(
+                "title", title(index),
+                "authorId", authorId,
+                "isbn", "LT" + run + "-" + index);
+    }
+
+    static String title(long index) {
+        return WORDS.get((int) (index % WORDS.size())) + " " + WORDS.get((int) ((index / WORDS.size()) % WORDS.size()))
+                + " " + index;
+    }
+
+    private JsonNode post(String path, Object body) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                LoadDriver.sendJson("POST", baseUrl + path, objectMapper.writeValueAsString(body)),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + path + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,298 @@
+package com.liras23.library.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end load test of every {@code BookController}, {@code AuthorController} and
+ * {@code AuthorBookController} route; see below for {@code ChangeFeedController}.
+ * <p>
+ * Starts the application (H2 by default, or PostgreSQL with {@code --db-url}), seeds a catalog, then
+ * drives a mixed read/write workload and reports throughput and p50/p95/p99 latency per endpoint.
+ * Deletes consume rows seeded for that purpose, so they exercise the success path; when the pool runs
+ * out they target unknown ids and show up as errors. Conditional lookups send the {@code ETag} read for
+ * the book before the run, which measures the {@code 304} path, or a tag no version ever produces, which
+ * measures the comparison followed by the full {@code 200} response. Change listings ask for the last
+ * {@value #CHANGES_WINDOW_SECONDS} seconds, the way a client polling for updates would.
+ * <p>
+ * The {@code /api/changes} event stream is left out: a subscription stays open for as long as the client
+ * listens, so it has no latency to report and would hold one of the clients for the whole run. Its cost shows
+ * up in the write latencies instead, since every committed write is published to the open streams.
+ * <p>
+ * Options: {@code --books} (default 10000), {@code --concurrency} (64), {@code --write-percent} (20),
+ * {@code --warmup} (10s), {@code --duration} (60s), {@code --mode=platform|virtual}, {@code --pool-size},
+ * {@code --report=path.csv}, {@code --db-url}/{@code --db-user}/{@code --db-password} and
+ * {@code --base-url} to target an already running instance.
+ */
+public final class EndpointLoadSuite {
+
+    private static final int BATCH_ROWS = 100;
+    private static final int LOOKUP_IDS = 30;
+    private static final int SPARE_ROWS_PER_SECOND = 50;
+    private static final int TAGGED_BOOKS = 1000;
+    private static final int CHANGES_WINDOW_SECONDS = 60;
+    private static final String STALE_ETAG = "\"-1.-1\"";
+
+    /**
+     * A seeded book and the {@code ETag} it had when the run started; updates during the run make some of
+     * these tags stale, as they would be for a real client.
+     */
+    private record TaggedBook(UUID id, String eTag) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final CatalogSeeder seeder;
+    private final CatalogSeeder.Catalog catalog;
+    private final Queue<UUID> deletableBooks;
+    private final Queue<UUID> deletableAuthors;
+    private final List<TaggedBook> taggedBooks;
+
+    private EndpointLoadSuite(String baseUrl, CatalogSeeder seeder, CatalogSeeder.Catalog catalog,
+                              List<UUID> deletableBooks, List<UUID> deletableAuthors, List<TaggedBook> taggedBooks) {
+        this.baseUrl = baseUrl;
+        this.seeder = seeder;
+        this.catalog = catalog;
+        this.deletableBooks = new ConcurrentLinkedQueue<>(deletableBooks);
+        this.deletableAuthors = new ConcurrentLinkedQueue<>(deletableAuthors);
+        this.taggedBooks = taggedBooks;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LibraryServer.Mode mode = options.mode(LibraryServer.Mode.PLATFORM);
+        if (mode == LibraryServer.Mode.REACTIVE) {
+            throw new IllegalArgumentException("The reactive stack has no batch import or export; compare it with ThreadModeBenchmark");
+        }
+        int books = options.getInt("books", 10_000);
+        int concurrency = options.getInt("concurrency", 64);
+        int writePercent = options.getInt("write-percent", 20);
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        if (writePercent < 0 || writePercent > 100) {
+            throw new IllegalArgumentException("--write-percent must be between 0 and 100");
+        }
+
+        try (LibraryServer server = LibraryServer.start(options, mode)) {
+            HttpClient client = LoadDriver.newClient();
+            CatalogSeeder seeder = new CatalogSeeder(client, server.baseUrl());
+            CatalogSeeder.Catalog catalog = seeder.seed(books);
+            // Rows only ever touched by the delete operations; authors without books can be deleted.
+            int spare = (int) (warmup.plus(duration).toSeconds() * SPARE_ROWS_PER_SECOND);
+            List<UUID> deletableBooks = seeder.createBooks(spare, catalog.authorIds()).stream()
+                    .map(CatalogSeeder.SeededBook::id)
+                    .toList();
+            List<UUID> deletableAuthors = seeder.createAuthors(spare / 10);
+
+            List<TaggedBook> taggedBooks = fetchETags(client, server.baseUrl(), catalog);
+
+            EndpointLoadSuite suite = new EndpointLoadSuite(server.baseUrl(), seeder, catalog,
+                    deletableBooks, deletableAuthors, taggedBooks);
+            LoadReport report = new LoadDriver(client)
+                    .run(suite.operations(writePercent), concurrency, warmup, duration);
+
+            report.print(System.out, String.format(Locale.ROOT,
+                    "%s threads: %d clients, %d books, %d%% writes, %s measured after %s warm-up",
+                    mode.name().toLowerCase(Locale.ROOT), concurrency, books, writePercent, duration, warmup));
+            String csv = options.get("report", null);
+            if (csv != null) {
+                report.writeCsv(Path.of(csv));
+            }
+        }
+    }
+
+    /**
+     * The workload: reads share {@code 100 - writePercent} of the requests and writes the rest, each
+     * split by the relative weights below.
+     */
+    private List<LoadDriver.Operation> operations(int writePercent) {
+        List<LoadDriver.Operation> operations = new ArrayList<>();
+        int readPercent = 100 - writePercent;
+
+        // Reads, relative weights out of 100
+        read(operations, readPercent, "GET /api/books", 7,
+                () -> LoadDriver.get(url("/api/books?size=20&page=" + randomPage())));
+        read(operations, readPercent, "GET /api/books?slice=true", 3,
+                () -> LoadDriver.get(url("/api/books?slice=true&size=20&page=" + randomPage())));
+        read(operations, readPercent, "GET /api/books?title=", 10,
+                () -> LoadDriver.get(url("/api/books?size=20&title=" + randomWord())));
+        read(operations, readPercent, "GET /api/books?cursor=", 8,
+                () -> LoadDriver.get(url("/api/books?size=20&cursor=")));
+        read(operations, readPercent, "GET /api/books/{id}", 15,
+                () -> LoadDriver.get(url("/api/books/" + catalog.randomBook().id())));
+        read(operations, readPercent, "GET /api/books/{id} If-None-Match (current)", 7, () -> {
+            TaggedBook book = randomTaggedBook();
+            return LoadDriver.get(url("/api/books/" + book.id()), "If-None-Match", book.eTag());
+        });
+        read(operations, readPercent, "GET /api/books/{id} If-None-Match (stale)", 3,
+                () -> LoadDriver.get(url("/api/books/" + randomTaggedBook().id()), "If-None-Match", STALE_ETAG));
+        read(operations, readPercent, "GET /api/books?ids=", 5,
+                () -> LoadDriver.get(url("/api/books?ids=" + join(randomBookIds()))));
+        read(operations, readPercent, "POST /api/books/lookup", 3,
+                () -> LoadDriver.sendJson("POST", url("/api/books/lookup"), json(Map.of("ids", randomBookIds()))));
+        read(operations, readPercent, "GET /api/books/changes?since=", 4,
+                () -> LoadDriver.get(url("/api/books/changes?size=100&since="
+                        + Instant.now().minusSeconds(CHANGES_WINDOW_SECONDS))));
+        read(operations, readPercent, "GET /api/books/export?format=NDJSON", 1,
+                () -> LoadDriver.get(url("/api/books/export?format=NDJSON")));
+        read(operations, readPercent, "GET /api/books/export?format=CSV", 1,
+                () -> LoadDriver.get(url("/api/books/export?format=CSV")));
+        read(operations, readPercent, "GET /api/authors", 3,
+                () -> LoadDriver.get(url("/api/authors?size=20&page=" + randomPage() / 10)));
+        read(operations, readPercent, "GET /api/authors?slice=true", 2,
+                () -> LoadDriver.get(url("/api/authors?slice=true&size=20&page=" + randomPage() / 10)));
+        read(operations, readPercent, "GET /api/authors?name=", 7,
+                () -> LoadDriver.get(url("/api/authors?size=20&name=author")));
+        read(operations, readPercent, "GET /api/authors?cursor=", 5,
+                () -> LoadDriver.get(url("/api/authors?size=20&cursor=")));
+        read(operations, readPercent, "GET /api/authors/{id}", 10,
+                () -> LoadDriver.get(url("/api/authors/" + catalog.randomAuthorId())));
+        read(operations, readPercent, "GET /api/authors/{id}/books", 2,
+                () -> LoadDriver.get(url("/api/authors/" + catalog.randomAuthorId() + "/books?size=20")));
+        read(operations, readPercent, "GET /api/authors?ids=", 2,
+                () -> LoadDriver.get(url("/api/authors?ids=" + join(randomAuthorIds()))));
+        read(operations, readPercent, "POST /api/authors/lookup", 1,
+                () -> LoadDriver.sendJson("POST", url("/api/authors/lookup"), json(Map.of("ids", randomAuthorIds()))));
+
+        // Writes, relative weights out of 100
+        write(operations, writePercent, "POST /api/books", 25,
+                () -> LoadDriver.sendJson("POST", url("/api/books"), json(seeder.bookRequest(catalog.randomAuthorId()))));
+        write(operations, writePercent, "PUT /api/books/{id}", 25, this::updateBook);
+        write(operations, writePercent, "DELETE /api/books/{id}", 10,
+                () -> LoadDriver.delete(url("/api/books/" + next(deletableBooks))));
+        write(operations, writePercent, "POST /api/books/batch (JSON)", 4,
+                () -> LoadDriver.sendJson("POST", url("/api/books/batch"), json(newBooks())));
+        write(operations, writePercent, "POST /api/books/batch (NDJSON)", 4,
+                () -> LoadDriver.send("POST", url("/api/books/batch"), "application/x-ndjson", ndjson(newBooks())));
+        write(operations, writePercent, "POST /api/authors", 12,
+                () -> LoadDriver.sendJson("POST", url("/api/authors"), json(Map.of("name", "Load " + randomWord()))));
+        write(operations, writePercent, "PUT /api/authors/{id}", 15,
+                () -> LoadDriver.sendJson("PUT", url("/api/authors/" + catalog.randomAuthorId()),
+                        json(Map.of("name", "Renamed " + randomWord()))));
+        write(operations, writePercent, "DELETE /api/authors/{id}", 5,
+                () -> LoadDriver.delete(url("/api/authors/" + next(deletableAuthors))));
+        return operations;
+    }
+
+    /**
+     * Reads the current {@code ETag} of up to {@value #TAGGED_BOOKS} seeded books, the way a client would
+     * before revalidating them.
+     */
+    private static List<TaggedBook> fetchETags(HttpClient client, String baseUrl, CatalogSeeder.Catalog catalog)
+            throws IOException, InterruptedException {
+        List<TaggedBook> taggedBooks = new ArrayList<>(TAGGED_BOOKS);
+        for (CatalogSeeder.SeededBook book : catalog.books().subList(0, Math.min(TAGGED_BOOKS, catalog.books().size()))) {
+            HttpResponse<Void> response = client.send(LoadDriver.get(baseUrl + "/api/books/" + book.id()),
+                    HttpResponse.BodyHandlers.discarding());
+            String eTag = response.headers().firstValue("ETag")
+                    .orElseThrow(() -> new IllegalStateException("GET /api/books/" + book.id() + " returned no ETag"));
+            taggedBooks.add(new TaggedBook(book.id(), eTag));
+        }
+        return taggedBooks;
+    }
+
+    private static void read(List<LoadDriver.Operation> operations, int readPercent, String name, int weight,
+                             Supplier<HttpRequest> request) {
+        if (readPercent > 0) {
+            operations.add(new LoadDriver.Operation(name, readPercent * weight, request));
+        }
+    }
+
+    private static void write(List<LoadDriver.Operation> operations, int writePercent, String name, int weight,
+                              Supplier<HttpRequest> request) {
+        if (writePercent > 0) {
+            operations.add(new LoadDriver.Operation(name, writePercent * weight, request));
+        }
+    }
+
+    private HttpRequest updateBook() {
+        CatalogSeeder.SeededBook book = catalog.randomBook();
+        return LoadDriver.sendJson("PUT", url("/api/books/" + book.id()), json(Map.of(
+                "title", CatalogSeeder.title(ThreadLocalRandom.current().nextInt(1_000_000)),
+                "authorId", book.authorId(),
+                "isbn", book.isbn())));
+    }
+
+    private List<Map<String, Object>> newBooks() {
+        List<Map<String, Object>> books = new ArrayList<>(BATCH_ROWS);
+        for (int i = 0; i < BATCH_ROWS; i++) {
+            books.add(seeder.bookRequest(catalog.randomAuthorId()));
+        }
+        return books;
+    }
+
+    private TaggedBook randomTaggedBook() {
+        return taggedBooks.get(ThreadLocalRandom.current().nextInt(taggedBooks.size()));
+    }
+
+    private List<UUID> randomBookIds() {
+        List<UUID> ids = new ArrayList<>(LOOKUP_IDS);
+        for (int i = 0; i < LOOKUP_IDS; i++) {
+            ids.add(catalog.randomBook().id());
+        }
+        return ids;
+    }
+
+    private List<UUID> randomAuthorIds() {
+        List<UUID> ids = new ArrayList<>(LOOKUP_IDS);
+        for (int i = 0; i < LOOKUP_IDS; i++) {
+            ids.add(catalog.randomAuthorId());
+        }
+        return ids;
+    }
+
+    private static String join(List<UUID> ids) {
+        return ids.stream().map(UUID::toString).collect(Collectors.joining(","));
+    }
+
+    private int randomPage() {
+        return ThreadLocalRandom.current().nextInt(catalog.books().size() / 20 + 1);
+    }
+
+    private static String randomWord() {
+        return CatalogSeeder.WORDS.get(ThreadLocalRandom.current().nextInt(CatalogSeeder.WORDS.size()));
+    }
+
+    private static UUID next(Queue<UUID> ids) {
+        UUID id = ids.poll();
+        return id != null ? id : UUID.randomUUID();
+    }
+
+    private String url(String path) {
+        return baseUrl + path;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String ndjson(List<?> values) {
+        StringBuilder body = new StringBuilder();
+        for (Object value : values) {
+            body.append(json(value)).append('\n');
+        }
+        return body.toString();
+    }
+}
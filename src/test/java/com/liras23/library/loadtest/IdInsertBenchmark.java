@@ -0,0 +1,105 @@
+package com.liras23.library.loadtest;
+
+import com.liras23.library.common.persistence.UuidV7Generator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares bulk inserts keyed by random v4 UUIDs with inserts keyed by the time-ordered v7 UUIDs of
+ * {@link UuidV7Generator}.
+ * <p>
+ * Each strategy inserts the same number of book-shaped rows into its own {@code bench_books_*} table in
+ * JDBC batches, committing every batch like the import job does, and reports the insert rate, the size of
+ * the primary key index and of the table, and the WAL written. A checkpoint runs before each strategy, so
+ * both pay for the full-page images written after it. Needs PostgreSQL; the tables are dropped at the end.
+ * <p>
+ * Options: {@code --rows} (default 1000000), {@code --batch-size} (default 500) and
+ * {@code --db-url}/{@code --db-user}/{@code --db-password}.
+ */
+public final class IdInsertBenchmark {
+
+    private static final String DEFAULT_DB_URL = "jdbc:postgresql://localhost:5432/library?reWriteBatchedInserts=true";
+
+    private IdInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int rows = options.getInt("rows", 1_000_000);
+        int batchSize = options.getInt("batch-size", 500);
+
+        try (Connection connection = DriverManager.getConnection(options.get("db-url", DEFAULT_DB_URL),
+                options.get("db-user", "user"), options.get("db-password", "password"))) {
+            System.out.printf(Locale.ROOT, "%d rows in batches of %d%n", rows, batchSize);
+            System.out.printf(Locale.ROOT, "%-10s %12s %14s %14s %14s%n",
+                    "ids", "rows/s", "pk index MB", "table MB", "WAL MB");
+            run(connection, "v4", UUID::randomUUID, rows, batchSize);
+            run(connection, "v7", UuidV7Generator::next, rows, batchSize);
+        }
+    }
+
+    private static void run(Connection connection, String name, Supplier<UUID> ids, int rows, int batchSize)
+            throws SQLException {
+        String table = "bench_books_" + name;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, title varchar(255) NOT NULL,"
+                    + " author_id uuid NOT NULL, version bigint NOT NULL DEFAULT 0)");
+            statement.execute("CHECKPOINT");
+        }
+        String walStart = queryString(connection, "SELECT pg_current_wal_lsn()::text");
+
+        UUID authorId = UUID.randomUUID();
+        connection.setAutoCommit(false);
+        long started = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, title, author_id) VALUES (?, ?, ?)")) {
+            for (int row = 1; row <= rows; row++) {
+                insert.setObject(1, ids.get());
+                insert.setString(2, CatalogSeeder.title(row));
+                insert.setObject(3, authorId);
+                insert.addBatch();
+                if (row % batchSize == 0 || row == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long walBytes = queryLong(connection, "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '" + walStart + "')::bigint");
+        long indexBytes = queryLong(connection, "SELECT pg_relation_size('" + table + "_pkey')");
+        long tableBytes = queryLong(connection, "SELECT pg_relation_size('" + table + "')");
+        System.out.printf(Locale.ROOT, "%-10s %12.0f %14.1f %14.1f %14.1f%n",
+                name, rows / seconds, megabytes(indexBytes), megabytes(tableBytes), megabytes(walBytes));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+    }
+
+    private static String queryString(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        return Long.parseLong(queryString(connection, sql));
+    }
+
+    private static double megabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
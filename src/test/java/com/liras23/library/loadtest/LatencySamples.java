@@ -0,0 +1,63 @@
+package com.liras23.library.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one operation, in nanoseconds. Each load test worker fills its own instance, so no
+ * locking is needed while recording; instances are merged once the run is over.
+ */
+final class LatencySamples {
+
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+    private boolean sorted;
+
+    void add(long nanos) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+        sorted = false;
+    }
+
+    void addError() {
+        errors++;
+    }
+
+    void merge(LatencySamples other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+        errors += other.errors;
+        sorted = false;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of the samples fall, using the nearest-rank method.
+     *
+     * @param quantile A value between 0 and 1, e.g. 0.99 for p99.
+     * @return The latency in nanoseconds, or 0 when there are no samples.
+     */
+    long quantile(double quantile) {
+        if (size == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(values, 0, size);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(quantile * size);
+        return values[Math.min(Math.max(rank, 1), size) - 1];
+    }
+}
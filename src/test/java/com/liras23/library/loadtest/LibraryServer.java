@@ -0,0 +1,98 @@
+package com.liras23.library.loadtest;
+
+import com.liras23.library.LibraryApplication;
+import com.liras23.library.common.config.ReactiveConfig;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application in the load test JVM on a random port, either against the embedded H2
+ * database or against the PostgreSQL given by {@code --db-url}, or points at an already running
+ * instance given by {@code --base-url}.
+ * <p>
+ * The adaptive concurrency limit is off unless {@code --concurrency-limit=true}: with hundreds of clients
+ * it turns most requests away with a {@code 503}, and the run would measure how fast those are answered
+ * rather than the endpoints.
+ */
+final class LibraryServer implements AutoCloseable {
+
+    /**
+     * The stack requests are served by: Tomcat on platform threads, Tomcat on virtual threads (the
+     * {@code virtual-threads} profile), or WebFlux on Netty with R2DBC (the {@code reactive} profile).
+     */
+    enum Mode {
+        PLATFORM, VIRTUAL, REACTIVE
+    }
+
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+
+    private LibraryServer(ConfigurableApplicationContext context, String baseUrl) {
+        this.context = context;
+        this.baseUrl = baseUrl;
+    }
+
+    static LibraryServer start(LoadTestOptions options, Mode mode) {
+        String externalUrl = options.get("base-url", null);
+        if (externalUrl != null) {
+            return new LibraryServer(null, externalUrl);
+        }
+
+        int poolSize = options.getInt("pool-size", 20);
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "spring.threads.virtual.enabled=" + (mode == Mode.VIRTUAL),
+                "library.concurrency-limit.enabled=" + Boolean.parseBoolean(options.get("concurrency-limit", "false"))
+        ));
+        String dbUrl = options.get("db-url", null);
+        if (dbUrl != null) {
+            properties.add("spring.datasource.url=" + dbUrl);
+            properties.add("spring.datasource.username=" + options.get("db-user", "user"));
+            properties.add("spring.datasource.password=" + options.get("db-password", "password"));
+        }
+        if (mode == Mode.REACTIVE) {
+            // The same number of connections, held by the R2DBC pool; JDBC keeps the profile's small pool.
+            properties.add("library.r2dbc.pool.max-size=" + poolSize);
+            if (dbUrl != null) {
+                properties.add("library.r2dbc.url=" + dbUrl.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", ""));
+            } else {
+                // A named in-memory database, so that JDBC (migrations) and R2DBC (requests) share it.
+                properties.add("spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+                properties.add("spring.datasource.username=sa");
+                properties.add("library.r2dbc.url=r2dbc:h2:mem:///loadtest?options=DB_CLOSE_DELAY=-1");
+            }
+        } else {
+            properties.add("spring.datasource.hikari.maximum-pool-size=" + poolSize);
+        }
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(LibraryApplication.class);
+        if (mode == Mode.VIRTUAL) {
+            builder.profiles("virtual-threads");
+        } else if (mode == Mode.REACTIVE) {
+            builder.profiles(ReactiveConfig.PROFILE);
+        }
+        // Passed as command line arguments so they take precedence over the profile's own settings.
+        ConfigurableApplicationContext context = builder.run(properties.stream()
+                .map(property -> "--" + property)
+                .toArray(String[]::new));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return new LibraryServer(context, "http://localhost:" + port);
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.liras23.library.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop load generator: a fixed number of clients, each on its own virtual thread, send a
+ * weighted mix of requests back to back for a fixed time. The clients use virtual threads so that
+ * the generator itself does not limit concurrency, whatever thread mode the server runs in.
+ */
+final class LoadDriver {
+
+    /**
+     * One kind of request of a workload, picked with a probability proportional to its weight.
+     */
+    record Operation(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    LoadDriver(HttpClient client) {
+        this.client = client;
+    }
+
+    static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Builds a GET request.
+     *
+     * @param url     The absolute URL.
+     * @param headers Extra headers as name, value pairs.
+     */
+    static HttpRequest get(String url, String... headers) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+        if (headers.length > 0) {
+            builder.headers(headers);
+        }
+        return builder.build();
+    }
+
+    static HttpRequest delete(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .DELETE()
+                .build();
+    }
+
+    static HttpRequest sendJson(String method, String url, String json) {
+        return send(method, url, "application/json", json);
+    }
+
+    static HttpRequest send(String method, String url, String contentType, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", contentType)
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Runs the workload for the warm-up period, discards those samples, then runs it again for the
+     * measured period.
+     */
+    LoadReport run(List<Operation> operations, int concurrency, Duration warmup, Duration duration)
+            throws InterruptedException {
+        if (!warmup.isZero()) {
+            runPhase(operations, concurrency, warmup);
+        }
+        return runPhase(operations, concurrency, duration);
+    }
+
+    private LoadReport runPhase(List<Operation> operations, int concurrency, Duration duration)
+            throws InterruptedException {
+        int[] cumulativeWeights = new int[operations.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            totalWeight += operations.get(i).weight();
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<Map<String, LatencySamples>>> workers = new ArrayList<>(concurrency);
+        Map<String, LatencySamples> merged = new LinkedHashMap<>();
+        operations.forEach(operation -> merged.put(operation.name(), new LatencySamples()));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int weightSum = totalWeight;
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> work(operations, cumulativeWeights, weightSum, deadline)));
+            }
+            for (Future<Map<String, LatencySamples>> worker : workers) {
+                worker.get().forEach((name, samples) -> merged.get(name).merge(samples));
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("A load test worker failed", ex.getCause());
+        }
+        return new LoadReport(Duration.ofNanos(System.nanoTime() - start), merged);
+    }
+
+    private Map<String, LatencySamples> work(List<Operation> operations, int[] cumulativeWeights, int totalWeight,
+                                             long deadline) {
+        Map<String, LatencySamples> samples = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(operations, cumulativeWeights, random.nextInt(totalWeight));
+            LatencySamples operationSamples = samples.computeIfAbsent(operation.name(), name -> new LatencySamples());
+            HttpRequest request = operation.request().get();
+            long sent = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    operationSamples.addError();
+                } else {
+                    operationSamples.add(System.nanoTime() - sent);
+                }
+            } catch (IOException ex) {
+                operationSamples.addError();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return samples;
+    }
+
+    private static Operation pick(List<Operation> operations, int[] cumulativeWeights, int value) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+}
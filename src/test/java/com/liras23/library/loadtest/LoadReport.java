@@ -0,0 +1,73 @@
+package com.liras23.library.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles of a load test run, per operation and in total.
+ */
+record LoadReport(Duration elapsed, Map<String, LatencySamples> byOperation) {
+
+    private static final String ROW_FORMAT = "%-44s %10s %8s %10s %9s %9s %9s %9s%n";
+
+    LatencySamples total() {
+        LatencySamples total = new LatencySamples();
+        byOperation.values().forEach(total::merge);
+        return total;
+    }
+
+    void print(PrintStream out, String title) {
+        out.println();
+        out.println(title);
+        out.printf(ROW_FORMAT, "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        byOperation.forEach((name, samples) -> printRow(out, name, samples));
+        printRow(out, "TOTAL", total());
+    }
+
+    /**
+     * Writes the same figures as {@link #print} to a CSV file, to compare runs before and after a change.
+     */
+    void writeCsv(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("operation,requests,errors,requests_per_second,p50_ms,p95_ms,p99_ms,max_ms");
+        byOperation.forEach((name, samples) -> lines.add(csvRow(name, samples)));
+        lines.add(csvRow("TOTAL", total()));
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, lines);
+    }
+
+    private String csvRow(String name, LatencySamples samples) {
+        return String.join(",", '"' + name + '"', String.valueOf(samples.count()), String.valueOf(samples.errors()),
+                format(samples.count() / seconds()), millis(samples.quantile(0.50)), millis(samples.quantile(0.95)),
+                millis(samples.quantile(0.99)), millis(samples.quantile(1.0)));
+    }
+
+    private double seconds() {
+        return elapsed.toNanos() / 1e9;
+    }
+
+    private void printRow(PrintStream out, String name, LatencySamples samples) {
+        out.printf(ROW_FORMAT, name, samples.count(), samples.errors(),
+                format(samples.count() / seconds()),
+                millis(samples.quantile(0.50)), millis(samples.quantile(0.95)),
+                millis(samples.quantile(0.99)), millis(samples.quantile(1.0)));
+    }
+
+    private static String millis(long nanos) {
+        return format(nanos / 1e6);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+}
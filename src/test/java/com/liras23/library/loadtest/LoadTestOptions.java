@@ -0,0 +1,60 @@
+package com.liras23.library.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options of the load test entry points, given as {@code --name=value}.
+ */
+final class LoadTestOptions {
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    String get(String name, String defaultValue) {
+        String value = values.get(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = get(name, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Reads {@code --mode=platform|virtual|reactive}, the stack the application is started on.
+     */
+    LibraryServer.Mode mode(LibraryServer.Mode defaultMode) {
+        String mode = get("mode", defaultMode.name()).toUpperCase(Locale.ROOT);
+        try {
+            return LibraryServer.Mode.valueOf(mode);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("--mode must be platform, virtual or reactive, got: " + mode.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Reads a duration such as {@code 30s} or {@code 2m}.
+     */
+    Duration getDuration(String name, Duration defaultValue) {
+        String value = get(name, null);
+        return value == null ? defaultValue : Duration.parse("PT" + value.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,59 @@
+package com.liras23.library.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares request handling on platform threads with handling on virtual threads and with the reactive
+ * stack (WebFlux on Netty with R2DBC).
+ * <p>
+ * Each run starts the application in one mode, seeds a catalog and drives a read-heavy mix of
+ * uncached, database-bound requests with many concurrent clients. Run it once per mode, in separate
+ * JVMs, with {@code benchmarks/threads/run.sh}. All modes use the same number of database connections,
+ * so the only difference is how requests are scheduled while they wait on the database.
+ * <p>
+ * Options: {@code --mode=platform|virtual|reactive}, {@code --books}, {@code --concurrency}, {@code --warmup},
+ * {@code --duration}, {@code --pool-size}, and {@code --db-url}/{@code --db-user}/{@code --db-password}
+ * to run against PostgreSQL instead of the embedded H2 database.
+ */
+public final class ThreadModeBenchmark {
+
+    private ThreadModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LibraryServer.Mode mode = options.mode(LibraryServer.Mode.VIRTUAL);
+        int books = options.getInt("books", 10_000);
+        int concurrency = options.getInt("concurrency", 1_000);
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(30));
+
+        try (LibraryServer server = LibraryServer.start(options, mode)) {
+            HttpClient client = LoadDriver.newClient();
+            new CatalogSeeder(client, server.baseUrl(), mode != LibraryServer.Mode.REACTIVE).seed(books);
+            String baseUrl = server.baseUrl();
+
+            List<LoadDriver.Operation> operations = List.of(
+                    new LoadDriver.Operation("GET /api/books?title=", 50, () -> LoadDriver.get(
+                            baseUrl + "/api/books?size=20&title=" + randomWord())),
+                    new LoadDriver.Operation("GET /api/books?cursor=", 30, () -> LoadDriver.get(
+                            baseUrl + "/api/books?size=20&cursor=")),
+                    new LoadDriver.Operation("GET /api/books?page=", 20, () -> LoadDriver.get(
+                            baseUrl + "/api/books?size=20&page=" + ThreadLocalRandom.current().nextInt(books / 20 + 1)))
+            );
+
+            LoadReport report = new LoadDriver(client).run(operations, concurrency, warmup, duration);
+            report.print(System.out, String.format(Locale.ROOT,
+                    "%s: %d clients, %d books, %s measured after %s warm-up",
+                    mode.name().toLowerCase(Locale.ROOT), concurrency, books, duration, warmup));
+        }
+    }
+
+    private static String randomWord() {
+        return CatalogSeeder.WORDS.get(ThreadLocalRandom.current().nextInt(CatalogSeeder.WORDS.size()));
+    }
+}
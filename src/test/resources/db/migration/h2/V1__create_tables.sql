@@ -0,0 +1,25 @@
+-- The schema of the PostgreSQL migrations, for the embedded H2 database the tests run on. H2 has no
+-- expression indexes, so ISBN uniqueness is a plain constraint; ISBNs are stored upper-cased anyway.
+-- The trigram search indexes have no H2 equivalent.
+CREATE TABLE authors (
+    id         uuid         NOT NULL,
+    name       varchar(255),
+    version    bigint       DEFAULT 0 NOT NULL,
+    book_count bigint       DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE books (
+    id        uuid         NOT NULL,
+    title     varchar(255) NOT NULL,
+    author_id uuid         NOT NULL,
+    isbn      varchar(255) NOT NULL,
+    version   bigint       DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_books_isbn UNIQUE (isbn),
+    CONSTRAINT fk_books_author_id FOREIGN KEY (author_id) REFERENCES authors (id)
+);
+
+CREATE INDEX idx_books_author_id ON books (author_id, id);
+CREATE INDEX idx_books_title ON books (title);
+CREATE INDEX idx_authors_name ON authors (name);
@@ -0,0 +1,15 @@
+-- The change tracking of the PostgreSQL migration V4.
+ALTER TABLE authors ADD COLUMN created_at timestamp(6) with time zone DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE authors ADD COLUMN updated_at timestamp(6) with time zone DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE books ADD COLUMN created_at timestamp(6) with time zone DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE books ADD COLUMN updated_at timestamp(6) with time zone DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX idx_books_updated_at ON books (updated_at, id);
+CREATE INDEX idx_authors_updated_at ON authors (updated_at, id);
+
+CREATE TABLE book_tombstones (
+    id         uuid                        NOT NULL,
+    deleted_at timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_book_tombstones_deleted_at ON book_tombstones (deleted_at, id);
@@ -0,0 +1,4 @@
+-- The database clock stamping of the PostgreSQL migration V6, without triggers.
+ALTER TABLE authors ALTER COLUMN updated_at SET ON UPDATE CURRENT_TIMESTAMP;
+ALTER TABLE books ALTER COLUMN updated_at SET ON UPDATE CURRENT_TIMESTAMP;
+ALTER TABLE book_tombstones ALTER COLUMN deleted_at SET DEFAULT CURRENT_TIMESTAMP;